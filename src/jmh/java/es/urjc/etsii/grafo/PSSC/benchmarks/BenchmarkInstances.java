@@ -0,0 +1,54 @@
+package es.urjc.etsii.grafo.PSSC.benchmarks;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstanceImporter;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Shared setup for the benchmarks. Instances are read from the folder given by the
+ * {@code pssc.instances} system property, {@code instances} by default.
+ */
+public final class BenchmarkInstances {
+
+    /**
+     * Representative instances of each family, from small and sparse to large and dense
+     */
+    public static final String SCP41 = "scp41.txt", SCPA1 = "scpa1.txt", SCPCLR13 = "scpclr13.txt",
+            SCPCYC08 = "scpcyc08.txt", SCPNRH5 = "scpnrh5.txt";
+
+    private BenchmarkInstances() {}
+
+    /**
+     * Path of a benchmark instance
+     * @param name instance file name
+     * @return path inside the instances folder
+     */
+    public static Path path(String name) {
+        return Path.of(System.getProperty("pssc.instances", "instances"), name);
+    }
+
+    /**
+     * Load a benchmark instance, with the instance cache disabled
+     * @param name instance file name
+     * @return parsed instance
+     */
+    public static PSSCInstance load(String name) {
+        try (var reader = Files.newBufferedReader(path(name))) {
+            return new PSSCInstanceImporter().importInstance(reader, name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Seed the Mork random generator of the current thread, so every fork uses the same random sequence
+     */
+    public static void resetRandom() {
+        RandomManager.reset(0);
+    }
+}
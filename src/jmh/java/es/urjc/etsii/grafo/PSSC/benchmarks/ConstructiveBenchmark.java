@@ -0,0 +1,51 @@
+package es.urjc.etsii.grafo.PSSC.benchmarks;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.constructives.grasp.PSSCGraspConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greedy constructive, in its eager and lazy bucket queue modes, and GRASP constructive
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructiveBenchmark {
+
+    @Param({BenchmarkInstances.SCP41, BenchmarkInstances.SCPA1, BenchmarkInstances.SCPCLR13,
+            BenchmarkInstances.SCPCYC08, BenchmarkInstances.SCPNRH5})
+    public String instanceName;
+
+    private PSSCInstance instance;
+    private final PSSCGreedyConstructive eager = new PSSCGreedyConstructive(false);
+    private final PSSCGreedyConstructive lazy = new PSSCGreedyConstructive(true);
+    private final PSSCGraspConstructive grasp = new PSSCGraspConstructive(0.25);
+
+    @Setup
+    public void setup() {
+        instance = BenchmarkInstances.load(instanceName);
+        BenchmarkInstances.resetRandom();
+    }
+
+    @Benchmark
+    public PSSCSolution greedyEager() {
+        return eager.construct(new PSSCSolution(instance));
+    }
+
+    @Benchmark
+    public PSSCSolution greedyLazy() {
+        return lazy.construct(new PSSCSolution(instance));
+    }
+
+    @Benchmark
+    public PSSCSolution grasp() {
+        return grasp.construct(new PSSCSolution(instance));
+    }
+}
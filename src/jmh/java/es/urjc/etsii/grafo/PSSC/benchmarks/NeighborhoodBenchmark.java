@@ -0,0 +1,81 @@
+package es.urjc.etsii.grafo.PSSC.benchmarks;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.neigh.AddNeighborhood;
+import es.urjc.etsii.grafo.PSSC.model.neigh.PackedMoveList;
+import es.urjc.etsii.grafo.PSSC.model.neigh.RemoveNeighborhood;
+import es.urjc.etsii.grafo.PSSC.model.neigh.SwapNeighborhood;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full exploration of each neighborhood from a greedy solution, consuming every move.
+ * The solution is never modified, so every invocation explores the same neighborhood.
+ * The packed variants reuse one {@link PackedMoveList}, run with {@code -prof gc} to compare their allocation rate
+ * with the lazy explorations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NeighborhoodBenchmark {
+
+    @Param({BenchmarkInstances.SCP41, BenchmarkInstances.SCPA1, BenchmarkInstances.SCPCLR13,
+            BenchmarkInstances.SCPCYC08, BenchmarkInstances.SCPNRH5})
+    public String instanceName;
+
+    private PSSCSolution solution;
+    private final AddNeighborhood add = new AddNeighborhood();
+    private final RemoveNeighborhood remove = new RemoveNeighborhood();
+    private final SwapNeighborhood swap = new SwapNeighborhood();
+    private final PackedMoveList moves = new PackedMoveList();
+
+    @Setup
+    public void setup() {
+        BenchmarkInstances.resetRandom();
+        solution = new PSSCGreedyConstructive(true).construct(new PSSCSolution(BenchmarkInstances.load(instanceName)));
+    }
+
+    @Benchmark
+    public void exploreAdd(Blackhole bh) {
+        add.explore(solution).moves().forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void exploreRemove(Blackhole bh) {
+        remove.explore(solution).moves().forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void exploreSwap(Blackhole bh) {
+        swap.explore(solution).moves().forEach(bh::consume);
+    }
+
+    @Benchmark
+    public int exploreAddPacked() {
+        moves.clear();
+        return add.explorePacked(solution, moves);
+    }
+
+    @Benchmark
+    public int exploreRemovePacked() {
+        moves.clear();
+        return remove.explorePacked(solution, moves);
+    }
+
+    @Benchmark
+    public int exploreSwapPacked() {
+        moves.clear();
+        return swap.explorePacked(solution, moves);
+    }
+
+    @Benchmark
+    public long firstSwapPacked() {
+        return swap.firstPacked(solution);
+    }
+}
@@ -0,0 +1,61 @@
+package es.urjc.etsii.grafo.PSSC.benchmarks;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.Popcount;
+import es.urjc.etsii.grafo.PSSC.model.PopcountKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gain of every set against the covered points of a greedy solution, counted on the packed coverage.
+ * Run with the {@code vector} profile to compare the scalar and the SIMD kernels, otherwise both are scalar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PopcountBenchmark {
+
+    @Param({BenchmarkInstances.SCP41, BenchmarkInstances.SCPA1, BenchmarkInstances.SCPCLR13,
+            BenchmarkInstances.SCPCYC08, BenchmarkInstances.SCPNRH5})
+    public String instanceName;
+
+    @Param({"scalar", "best"})
+    public String kernelName;
+
+    private PopcountKernel kernel;
+    private long[] coverage;
+    private long[] covered;
+    private int nSets;
+    private int words;
+
+    @Setup
+    public void setup() {
+        BenchmarkInstances.resetRandom();
+        var instance = BenchmarkInstances.load(instanceName);
+        var solution = new PSSCGreedyConstructive(true).construct(new PSSCSolution(instance));
+        kernel = kernelName.equals("scalar") ? Popcount.SCALAR : Popcount.kernel();
+        coverage = instance.getPackedCoverage();
+        nSets = instance.getnSets();
+        words = instance.getWordsPerSet();
+        covered = new long[words];
+        for (int p = 0; p < instance.getnPoints(); p++) {
+            if (solution.getCoverCount(p) > 0) {
+                covered[p >>> 6] |= 1L << p;
+            }
+        }
+    }
+
+    @Benchmark
+    public int gains() {
+        int total = 0;
+        for (int s = 0; s < nSets; s++) {
+            total += kernel.andNotCount(coverage, s * words, covered, 0, words);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,67 @@
+package es.urjc.etsii.grafo.PSSC.benchmarks;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.shake.ExamplePSSCShake;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental solution updates, cloning and shaking, starting from a greedy solution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolutionBenchmark {
+
+    @Param({BenchmarkInstances.SCP41, BenchmarkInstances.SCPA1, BenchmarkInstances.SCPCLR13,
+            BenchmarkInstances.SCPCYC08, BenchmarkInstances.SCPNRH5})
+    public String instanceName;
+
+    private PSSCSolution solution;
+    private int[] notChosen;
+    private int next;
+    private final ExamplePSSCShake shake = new ExamplePSSCShake();
+
+    @Setup
+    public void setup() {
+        BenchmarkInstances.resetRandom();
+        solution = new PSSCGreedyConstructive(true).construct(new PSSCSolution(BenchmarkInstances.load(instanceName)));
+        int nSets = solution.getInstance().getnSets();
+        notChosen = new int[nSets - solution.getScore()];
+        for (int s = 0, i = 0; s < nSets; s++) {
+            if (!solution.getChosenSets().contains(s)) {
+                notChosen[i++] = s;
+            }
+        }
+    }
+
+    /**
+     * Add a set that is not chosen and remove it again, cycling through every non chosen set
+     */
+    @Benchmark
+    public int addRemove() {
+        int set = notChosen[next];
+        next = next + 1 == notChosen.length ? 0 : next + 1;
+        solution.addSet(set);
+        solution.removeSet(set);
+        return solution.getCoveredCount();
+    }
+
+    @Benchmark
+    public PSSCSolution cloneSolution() {
+        return solution.cloneSolution();
+    }
+
+    /**
+     * Shake a copy of the solution, includes the cost of {@link #cloneSolution()}
+     */
+    @Benchmark
+    public PSSCSolution cloneAndShake() {
+        return shake.shake(solution.cloneSolution(), 1);
+    }
+}
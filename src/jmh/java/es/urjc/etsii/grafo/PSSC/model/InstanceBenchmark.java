@@ -0,0 +1,52 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.PSSC.benchmarks.BenchmarkInstances;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instance loading: text parsing, including preprocessing, and dominance analysis alone.
+ * Lives in the model package to reach {@link DominanceAnalyzer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstanceBenchmark {
+
+    @Param({BenchmarkInstances.SCP41, BenchmarkInstances.SCPA1, BenchmarkInstances.SCPCLR13,
+            BenchmarkInstances.SCPCYC08, BenchmarkInstances.SCPNRH5})
+    public String instanceName;
+
+    private char[] content;
+    private PSSCInstanceImporter importer;
+    private PSSCInstance instance;
+
+    @Setup
+    public void setup() throws IOException {
+        content = Files.readString(BenchmarkInstances.path(instanceName)).toCharArray();
+        importer = new PSSCInstanceImporter();
+        instance = importer.importInstance(new BufferedReader(new CharArrayReader(content)), instanceName);
+    }
+
+    /**
+     * Full import from text already in memory, so disk speed is not measured
+     */
+    @Benchmark
+    public PSSCInstance parse() throws IOException {
+        return importer.importInstance(new BufferedReader(new CharArrayReader(content)), instanceName);
+    }
+
+    @Benchmark
+    public Object dominance() {
+        return new DominanceAnalyzer(instance.getCoverage(), instance.getSetOffsets(), instance.getSetPoints(),
+                instance.getPointOffsets(), instance.getPointSets()).findUselessSets();
+    }
+}
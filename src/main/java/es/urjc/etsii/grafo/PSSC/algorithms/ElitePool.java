@@ -0,0 +1,90 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bounded pool of the best distinct feasible solutions found so far, shared by the population workers.
+ * Solutions stored in the pool are never modified, callers must clone them before changing them.
+ */
+final class ElitePool {
+
+    private final int capacity;
+    private final List<PSSCSolution> elites;
+
+    ElitePool(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Elite pool needs at least two solutions, got " + capacity);
+        }
+        this.capacity = capacity;
+        this.elites = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Try to insert a solution in the pool. When the pool is full, the solution replaces the worst elite if it is strictly better.
+     * @param solution feasible solution, ownership is transferred to the pool
+     * @return true if the solution has been inserted
+     */
+    synchronized boolean offer(PSSCSolution solution) {
+        if (!solution.isCovered()) {
+            return false;
+        }
+        int worst = -1;
+        for (int i = 0; i < elites.size(); i++) {
+            var elite = elites.get(i);
+            if (sameSets(elite, solution)) {
+                return false;
+            }
+            if (worst < 0 || elite.getScore() > elites.get(worst).getScore()) {
+                worst = i;
+            }
+        }
+        if (elites.size() < capacity) {
+            elites.add(solution);
+            return true;
+        }
+        if (solution.getScore() < elites.get(worst).getScore()) {
+            elites.set(worst, solution);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Pick two different elites at random
+     * @param rnd random generator of the calling worker
+     * @return array with two solutions, or null if the pool has less than two elites
+     */
+    synchronized PSSCSolution[] pickPair(RandomGenerator rnd) {
+        int n = elites.size();
+        if (n < 2) {
+            return null;
+        }
+        int a = rnd.nextInt(n);
+        int b = rnd.nextInt(n - 1);
+        if (b >= a) {
+            b++;
+        }
+        return new PSSCSolution[]{elites.get(a), elites.get(b)};
+    }
+
+    /**
+     * Pick one elite at random
+     * @param rnd random generator of the calling worker
+     * @return elite solution, or null if the pool is empty
+     */
+    synchronized PSSCSolution pick(RandomGenerator rnd) {
+        return elites.isEmpty() ? null : elites.get(rnd.nextInt(elites.size()));
+    }
+
+    synchronized int size() {
+        return elites.size();
+    }
+
+    private static boolean sameSets(PSSCSolution a, PSSCSolution b) {
+        return a.getScore() == b.getScore() && a.getChosenSets().containsAll(b.getChosenSets());
+    }
+}
@@ -0,0 +1,189 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSubproblem;
+import es.urjc.etsii.grafo.PSSC.model.Popcount;
+import es.urjc.etsii.grafo.PSSC.model.neigh.PackedNeighborhood;
+import es.urjc.etsii.grafo.PSSC.model.neigh.RemoveNeighborhood;
+import es.urjc.etsii.grafo.PSSC.model.neigh.SwapNeighborhood;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fix-and-optimize large neighborhood move.
+ * <p>
+ * A fraction of the chosen sets is frozen, keeping free a group of chosen sets that overlap a random chosen set.
+ * The remaining part of the problem is extracted as a
+ * {@link PSSCSubproblem}, solved with a sub-solver, and merged back if it is not worse. On large instances the
+ * sub-instance is much smaller than the original one, so the sub-solver spends its effort only on the sets that can change.
+ */
+public class FixAndOptimize {
+
+    private static final double DEFAULT_FREEZE_RATIO = 0.7;
+    private static final int DEFAULT_MAX_EXTRA_SETS = 2000;
+    private static final long DEFAULT_TABU_STEPS = 5_000;
+
+    private final double freezeRatio;
+    private final int maxExtraSets;
+    private final UnaryOperator<PSSCSolution> subSolver;
+
+    public FixAndOptimize() {
+        this(DEFAULT_FREEZE_RATIO, DEFAULT_MAX_EXTRA_SETS, tabu(DEFAULT_TABU_STEPS));
+    }
+
+    /**
+     * Create a fix-and-optimize move
+     * @param freezeRatio fraction of the chosen sets to freeze, in [0, 1)
+     * @param maxExtraSets maximum number of non chosen sets included in each sub-instance
+     * @param subSolver solves a sub-instance starting from a feasible solution, returns a feasible solution that may be the same object
+     */
+    public FixAndOptimize(double freezeRatio, int maxExtraSets, UnaryOperator<PSSCSolution> subSolver) {
+        if (freezeRatio < 0 || freezeRatio >= 1) {
+            throw new IllegalArgumentException("Freeze ratio must be in [0, 1), got " + freezeRatio);
+        }
+        if (maxExtraSets < 0) {
+            throw new IllegalArgumentException("Max extra sets must be non negative, got " + maxExtraSets);
+        }
+        this.freezeRatio = freezeRatio;
+        this.maxExtraSets = maxExtraSets;
+        this.subSolver = subSolver;
+    }
+
+    /**
+     * Sub-solver that runs the tabu search engine on the sub-instance
+     * @param steps maximum tabu steps per sub-instance
+     * @return sub-solver
+     */
+    public static UnaryOperator<PSSCSolution> tabu(long steps) {
+        return solution -> new TabuSearchEngine(2).improve(solution, RandomManager.getRandom(), steps, Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * Sub-solver that runs the exact branch and bound on the sub-instance, in the calling thread
+     * @param nodeLimit maximum nodes per sub-instance, the best solution found is returned when it is reached
+     * @return sub-solver
+     */
+    public static UnaryOperator<PSSCSolution> exact(long nodeLimit) {
+        var solver = new PSSCBranchAndBound("FixAndOptimize-BnB", nodeLimit, Long.MAX_VALUE, 1);
+        return solution -> solver.solve(solution).solution();
+    }
+
+    /**
+     * Sub-solver that applies the existing neighborhoods: redundant sets are dropped, and swaps are tried
+     * until one of them allows dropping another set
+     * @param maxSwaps maximum number of swap moves per sub-instance
+     * @return sub-solver
+     */
+    public static UnaryOperator<PSSCSolution> localSearch(int maxSwaps) {
+        var drop = new RemoveNeighborhood();
+        var swap = new SwapNeighborhood(true);
+        return solution -> {
+            for (int i = 0; i <= maxSwaps; i++) {
+                long move;
+                while ((move = drop.firstPacked(solution)) != PackedNeighborhood.NONE) {
+                    drop.materialize(solution, move).execute(solution);
+                }
+                move = swap.firstPacked(solution);
+                if (move == PackedNeighborhood.NONE) {
+                    break;
+                }
+                swap.materialize(solution, move).execute(solution);
+            }
+            return solution;
+        };
+    }
+
+    /**
+     * Apply the move to a solution
+     * @param solution feasible solution, modified in place if the subproblem solution is not worse
+     * @return true if the number of chosen sets decreased
+     */
+    public boolean apply(PSSCSolution solution) {
+        int nChosen = solution.getScore();
+        int nFree = nChosen - (int) (freezeRatio * nChosen);
+        if (nChosen == 0 || nFree < 1) {
+            return false;
+        }
+
+        var frozen = solution.getChosenSets().clone();
+        for (int set : freeRelatedSets(solution, nFree)) {
+            frozen.remove(set);
+        }
+
+        var subproblem = PSSCSubproblem.build(solution, frozen, maxExtraSets);
+        var subSolution = subSolver.apply(subproblem.initialSolution());
+        if (!subSolution.isCovered() || subSolution.getScore() > subproblem.getFreeChosenCount()) {
+            return false;
+        }
+        boolean improved = subSolution.getScore() < subproblem.getFreeChosenCount();
+        subproblem.merge(solution, subSolution);
+        return improved;
+    }
+
+    /**
+     * Select chosen sets that share points with a random seed set, so the subproblem can exchange them.
+     * Chosen sets are ranked by the number of points they share with the seed, ties are broken at random,
+     * so dense instances where every chosen set overlaps the seed still get a different group on each call.
+     * @param solution current solution
+     * @param nFree number of chosen sets to select
+     * @return selected chosen sets, the seed first
+     */
+    private static int[] freeRelatedSets(PSSCSolution solution, int nFree) {
+        var instance = solution.getInstance();
+        int[] setOffsets = instance.getSetOffsets(), setPoints = instance.getSetPoints();
+        int[] pointOffsets = instance.getPointOffsets(), pointSets = instance.getPointSets();
+        var chosen = solution.getChosenSets();
+        int[] chosenList = new int[chosen.size()];
+        int n = 0;
+        for (int set : chosen) {
+            chosenList[n++] = set;
+        }
+
+        var rnd = RandomManager.getRandom();
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int tmp = chosenList[i];
+            chosenList[i] = chosenList[j];
+            chosenList[j] = tmp;
+        }
+        int seed = chosenList[0];
+
+        // Either visit every set sharing a point with the seed, or intersect the seed bitmap with each chosen set
+        // when the packed coverage is cheaper and fits in memory
+        int[] overlap = new int[instance.getnSets()];
+        long sharing = 0;
+        for (int i = setOffsets[seed]; i < setOffsets[seed + 1]; i++) {
+            sharing += instance.pointDegree(setPoints[i]);
+        }
+        int words = instance.getWordsPerSet();
+        if ((long) n * words < sharing && instance.canPackCoverage()) {
+            long[] packed = instance.getPackedCoverage();
+            for (int i = 0; i < n; i++) {
+                int set = chosenList[i];
+                overlap[set] = Popcount.andCount(packed, seed * words, packed, set * words, words);
+            }
+        } else {
+            for (int i = setOffsets[seed]; i < setOffsets[seed + 1]; i++) {
+                int p = setPoints[i];
+                for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                    overlap[pointSets[j]]++;
+                }
+            }
+        }
+        overlap[seed] = Integer.MAX_VALUE;
+
+        // Sort by decreasing overlap, the shuffled position breaks ties
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) -overlap[chosenList[i]] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] selected = new int[nFree];
+        for (int i = 0; i < nFree; i++) {
+            selected[i] = chosenList[(int) keys[i]];
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,529 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCLowerBound;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.Popcount;
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact depth-first branch and bound, meant for small instances such as the scp4x to scp6x families.
+ * <p>
+ * Each node picks the candidate set that covers the most uncovered weight and branches on including it or excluding
+ * it. The exclusion branch is a loop in the same frame, so the recursion depth is bounded by the number of chosen sets.
+ * Coverage is kept as a bitmap of 64 bit words per set, and gains are computed with word-level popcounts, see {@link Popcount}.
+ * <ul>
+ *     <li><strong>Dominance</strong> – sets in {@link PSSCInstance#getUselessSets()} are never branched on, except the
+ *         lowest id copy of each duplicated set, as useless sets include every copy.</li>
+ *     <li><strong>Incumbent</strong> – the search starts from a {@link PSSCGreedyConstructive} solution.</li>
+ *     <li><strong>Counting bound</strong> – a node is pruned if the largest gains of the remaining candidates cannot
+ *         reach the target with fewer sets than the incumbent.</li>
+ *     <li><strong>Lagrangian bound</strong> – nodes near the root are also pruned with the bound of
+ *         {@link PSSCLowerBound} restricted to their uncovered points and allowed sets. Subgradient optimization starts
+ *         from the multipliers of the parent node, so only the root needs a long run. Sets whose reduced cost lifts
+ *         the bound to the incumbent score are excluded from the subtree, and these nodes branch on the set with the
+ *         lowest reduced cost.</li>
+ * </ul>
+ * Inclusion subtrees near the root are forked into a {@link ForkJoinPool} while other workers are idle, so the tree is
+ * balanced by work stealing. When the node or time limit is reached, the best solution found so far is returned and
+ * it is not proved optimal.
+ */
+public class PSSCBranchAndBound
+        extends Algorithm<PSSCSolution, PSSCInstance> {
+
+    private static final Logger log = LoggerFactory.getLogger(PSSCBranchAndBound.class);
+
+    private static final long DEFAULT_NODE_LIMIT = 1_000_000_000L;
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+
+    /**
+     * Nodes explored by a task between two checks of the shared limits
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    /**
+     * Subtrees deeper than this number of chosen sets are never forked
+     */
+    private static final int MAX_SPLIT_DEPTH = 16;
+
+    /**
+     * Tasks queued by a worker above which it explores subtrees itself instead of forking them
+     */
+    private static final int MAX_SURPLUS_TASKS = 3;
+
+    /**
+     * Nodes with at most this number of chosen sets are also bounded with the Lagrangian relaxation
+     */
+    private static final int MAX_LAGRANGIAN_DEPTH = 8;
+
+    /**
+     * Subgradient iterations at the root, and at other nodes, which start from the multipliers of their parent
+     */
+    private static final int ROOT_LAGRANGIAN_ITERATIONS = 1000;
+    private static final int NODE_LAGRANGIAN_ITERATIONS = 100;
+
+    private static final double EPSILON = 1e-6;
+
+    private final long nodeLimit;
+    private final long timeLimitMillis;
+    private final int nThreads;
+
+    /**
+     * Outcome of a search
+     * @param solution best solution found
+     * @param optimal true if the whole tree was explored, so the solution is optimal
+     * @param nodes number of nodes explored
+     * @param millis time spent, in milliseconds
+     */
+    public record Result(PSSCSolution solution, boolean optimal, long nodes, long millis) {}
+
+    public PSSCBranchAndBound(String name) {
+        this(name, DEFAULT_NODE_LIMIT, DEFAULT_TIME_LIMIT_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an exact solver
+     * @param name algorithm name
+     * @param nodeLimit maximum number of nodes, the search stops shortly after reaching it
+     * @param timeLimitMillis maximum run time, in milliseconds
+     * @param nThreads number of threads
+     */
+    public PSSCBranchAndBound(String name, long nodeLimit, long timeLimitMillis, int nThreads) {
+        super(name);
+        if (nodeLimit < 1 || timeLimitMillis < 0 || nThreads < 1) {
+            throw new IllegalArgumentException("Invalid branch and bound parameters");
+        }
+        this.nodeLimit = nodeLimit;
+        this.timeLimitMillis = timeLimitMillis;
+        this.nThreads = nThreads;
+    }
+
+    @Override
+    public PSSCSolution algorithm(PSSCInstance instance) {
+        var greedy = new PSSCGreedyConstructive(true).construct(new PSSCSolution(instance));
+        var result = solve(greedy);
+        log.info("{} {}: score {}, optimal {}, {} nodes, {} ms", getName(), instance.getId(),
+                result.solution().getScore(), result.optimal(), result.nodes(), result.millis());
+        return result.solution();
+    }
+
+    /**
+     * Search for a solution better than the given one
+     * @param incumbent feasible solution, not modified
+     * @return result, its solution is the incumbent itself if no better one was found. If the instance lower bound
+     * is already known and the incumbent reaches it, no search is done. Instances whose coverage bitmap would exceed
+     * {@link PSSCInstance#MAX_PACKED_WORDS} are not searched either, the incumbent is returned as not optimal
+     */
+    public Result solve(PSSCSolution incumbent) {
+        if (!incumbent.isCovered()) {
+            throw new IllegalArgumentException("The incumbent solution must be feasible");
+        }
+        long start = System.nanoTime();
+        var instance = incumbent.getInstance();
+        if (instance.hasLowerBound() && incumbent.getScore() <= instance.getLowerBound()) {
+            return new Result(incumbent, true, 0, 0);
+        }
+        if (!instance.canPackCoverage()) {
+            log.warn("{} {}: coverage bitmap of {} sets and {} points is too large, returning the incumbent solution",
+                    getName(), instance.getId(), instance.getnSets(), instance.getnPoints());
+            return new Result(incumbent, false, 0, 0);
+        }
+        var search = new Search(incumbent, start + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis));
+        var pool = new ForkJoinPool(nThreads);
+        try {
+            pool.invoke(new Task(search, search.root()));
+        } finally {
+            pool.shutdownNow();
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new Result(search.bestSolution(incumbent), !search.truncated, search.nodes.sum(), millis);
+    }
+
+    /**
+     * Store a value at the given position of a growable array
+     * @return the array, or a larger copy if it was full
+     */
+    private static int[] append(int[] array, int position, int value) {
+        if (array == null) {
+            array = new int[8];
+        } else if (position == array.length) {
+            array = Arrays.copyOf(array, 2 * position);
+        }
+        array[position] = value;
+        return array;
+    }
+
+    /**
+     * Read-only data and shared state of one search
+     */
+    private final class Search {
+        final PSSCInstance instance;
+        final int nSets, words, target;
+        final int[] weights;
+
+        /**
+         * Points of set s are the bits of {@code coverage[s * words]} to {@code coverage[s * words + words - 1]},
+         * see {@link PSSCInstance#getPackedCoverage()}
+         */
+        final long[] coverage;
+
+        /**
+         * Sets that can be branched on, by decreasing size
+         */
+        final int[] candidates;
+
+        final long deadline;
+        final LongAdder nodes = new LongAdder();
+        final AtomicInteger bestScore;
+        int[] bestSets;
+
+        /**
+         * Set once the node or time limit is reached, tasks stop exploring as soon as they see it
+         */
+        volatile boolean stopped;
+
+        /**
+         * Set when some node is left unexplored because of the limits. The limits may also be reached by the last
+         * count of a search that explored the whole tree, so only this flag tells whether the result is optimal
+         */
+        volatile boolean truncated;
+
+        Search(PSSCSolution incumbent, long deadline) {
+            this.instance = incumbent.getInstance();
+            this.nSets = instance.getnSets();
+            this.words = instance.getWordsPerSet();
+            this.target = instance.getMinCoveredRequired();
+            this.weights = instance.getPointWeights();
+            this.deadline = deadline;
+
+            int[] offsets = instance.getSetOffsets(), points = instance.getSetPoints();
+            this.coverage = instance.getPackedCoverage();
+
+            // Useless sets are contained in another set, but every copy of a duplicated set is useless,
+            // so the first copy of each group of useless sets with the same points is kept
+            var useless = instance.getUselessSets();
+            var copies = new HashMap<IntBuffer, Integer>();
+            for (int s : useless) {
+                copies.merge(IntBuffer.wrap(points, offsets[s], offsets[s + 1] - offsets[s]), 1, Integer::sum);
+            }
+            var seen = new HashSet<IntBuffer>();
+            var kept = new ArrayList<Integer>();
+            for (int s = 0; s < nSets; s++) {
+                if (offsets[s] == offsets[s + 1]) continue;
+                var row = IntBuffer.wrap(points, offsets[s], offsets[s + 1] - offsets[s]);
+                if (!useless.contains(s) || copies.get(row) > 1 && seen.add(row)) {
+                    kept.add(s);
+                }
+            }
+            kept.sort((a, b) -> Integer.compare(instance.setDegree(b), instance.setDegree(a)));
+            this.candidates = kept.stream().mapToInt(Integer::intValue).toArray();
+
+            this.bestScore = new AtomicInteger(incumbent.getScore());
+            this.bestSets = null;
+        }
+
+        Node root() {
+            var root = new Node(this);
+            root.multipliers[0] = PSSCLowerBound.initialMultipliers(instance);
+            return root;
+        }
+
+        /**
+         * Lagrangian bound of a node, the reduced costs of its best multipliers are left in {@code node.costs}
+         * @param node node, its sets are the candidates that are not excluded
+         * @param u multipliers of the node, updated with the best ones found
+         * @param remaining weight still to cover
+         * @param upperBound sets the node may add before reaching the incumbent score
+         * @param iterations subgradient iterations
+         * @return value of the Lagrangian function, its ceiling bounds the number of sets to add
+         */
+        double lagrangianBound(Node node, double[] u, int remaining, int upperBound, int iterations) {
+            boolean[] columns = node.columns;
+            for (int set : candidates) {
+                columns[set] = (node.excluded[set >>> 6] & (1L << set)) == 0;
+            }
+            double l = PSSCLowerBound.optimize(instance, u, columns, node.covered, remaining, upperBound, iterations);
+            PSSCLowerBound.reducedCosts(instance, u, node.costs);
+            return l;
+        }
+
+        int gain(int set, long[] covered) {
+            int base = set * words;
+            if (weights == null) {
+                return Popcount.andNotCount(coverage, base, covered, 0, words);
+            }
+            int gain = 0;
+            for (int w = 0; w < words; w++) {
+                long bits = coverage[base + w] & ~covered[w];
+                while (bits != 0) {
+                    gain += weights[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                }
+            }
+            return gain;
+        }
+
+        synchronized void improve(int[] chosen, int nChosen) {
+            if (nChosen < bestScore.get()) {
+                bestSets = Arrays.copyOf(chosen, nChosen);
+                bestScore.set(nChosen);
+            }
+        }
+
+        void count(long explored) {
+            nodes.add(explored);
+            if (nodes.sum() >= nodeLimit || System.nanoTime() - deadline >= 0) {
+                stopped = true;
+            }
+        }
+
+        synchronized PSSCSolution bestSolution(PSSCSolution incumbent) {
+            if (bestSets == null) {
+                return incumbent;
+            }
+            var solution = new PSSCSolution(instance);
+            for (int set : bestSets) {
+                solution.addSet(set);
+            }
+            solution.notifyUpdate();
+            return solution;
+        }
+    }
+
+    /**
+     * Partial solution explored by a task, modified in place and restored when backtracking
+     */
+    private static final class Node {
+        final Search search;
+        final long[] covered;
+        final long[] excluded;
+        final int[] chosen;
+        final int[] gains;
+        final boolean[] columns;
+        final double[] costs;
+
+        /**
+         * Lagrangian multipliers of the frames on the current path, by number of chosen sets
+         */
+        final double[][] multipliers = new double[MAX_LAGRANGIAN_DEPTH + 1][];
+        long[][] undo = new long[0][];
+        int coveredWeight, nChosen;
+        int explored;
+
+        Node(Search search) {
+            this.search = search;
+            this.covered = new long[search.words];
+            this.excluded = new long[(search.nSets + 63) >>> 6];
+            this.chosen = new int[search.candidates.length];
+            this.gains = new int[search.candidates.length];
+            this.columns = new boolean[search.nSets];
+            this.costs = new double[search.nSets];
+        }
+
+        Node(Node other) {
+            this.search = other.search;
+            this.covered = other.covered.clone();
+            this.excluded = other.excluded.clone();
+            this.chosen = other.chosen.clone();
+            this.gains = new int[other.gains.length];
+            this.columns = new boolean[other.columns.length];
+            this.costs = new double[other.costs.length];
+            this.coveredWeight = other.coveredWeight;
+            this.nChosen = other.nChosen;
+            if (nChosen <= MAX_LAGRANGIAN_DEPTH) {
+                this.multipliers[nChosen] = other.multipliers[nChosen].clone();
+            }
+        }
+
+        /**
+         * Start a frame at the current depth from the multipliers of its parent frame
+         * @return multipliers of this frame
+         */
+        double[] enterMultipliers() {
+            if (nChosen > 0) {
+                double[] parent = multipliers[nChosen - 1];
+                if (multipliers[nChosen] == null) {
+                    multipliers[nChosen] = parent.clone();
+                } else {
+                    System.arraycopy(parent, 0, multipliers[nChosen], 0, parent.length);
+                }
+            }
+            return multipliers[nChosen];
+        }
+
+        void include(int set, int gain) {
+            if (undo.length <= nChosen) {
+                undo = Arrays.copyOf(undo, Math.max(8, 2 * nChosen));
+            }
+            if (undo[nChosen] == null) {
+                undo[nChosen] = new long[covered.length];
+            }
+            long[] added = undo[nChosen];
+            long[] coverage = search.coverage;
+            int base = set * covered.length;
+            for (int w = 0; w < covered.length; w++) {
+                added[w] = coverage[base + w] & ~covered[w];
+                covered[w] |= added[w];
+            }
+            coveredWeight += gain;
+            chosen[nChosen++] = set;
+        }
+
+        /**
+         * Undo the last {@link #include(int, int)}
+         */
+        void removeLast(int gain) {
+            long[] added = undo[--nChosen];
+            for (int w = 0; w < covered.length; w++) {
+                covered[w] &= ~added[w];
+            }
+            coveredWeight -= gain;
+        }
+    }
+
+    private final class Task extends RecursiveAction {
+        private final Search search;
+        private final Node node;
+
+        Task(Search search, Node node) {
+            this.search = search;
+            this.node = node;
+        }
+
+        @Override
+        protected void compute() {
+            var forked = new ArrayList<Task>();
+            explore(node, forked);
+            search.count(node.explored);
+            for (var task : forked) {
+                task.join();
+            }
+        }
+
+        /**
+         * Explore the subtree of a node, leaving the node as it was
+         */
+        private void explore(Node node, ArrayList<Task> forked) {
+            var s = search;
+            int[] excludedHere = null;
+            int nExcluded = 0;
+            double[] u = node.nChosen <= MAX_LAGRANGIAN_DEPTH ? node.enterMultipliers() : null;
+
+            while (true) {
+                if (s.stopped) {
+                    s.truncated = true;
+                    break;
+                }
+                if (++node.explored == CHECK_INTERVAL) {
+                    s.count(node.explored);
+                    node.explored = 0;
+                }
+                if (node.coveredWeight >= s.target) {
+                    s.improve(node.chosen, node.nChosen);
+                    break;
+                }
+                // Sets that can still be added without reaching the incumbent score
+                int budget = s.bestScore.get() - 1 - node.nChosen;
+                if (budget <= 0) {
+                    break;
+                }
+
+                // Without a Lagrangian bound, branch on the set with the largest gain
+                int n = 0, bestSet = -1, bestGain = 0;
+                for (int set : s.candidates) {
+                    if ((node.excluded[set >>> 6] & (1L << set)) != 0) continue;
+                    int gain = s.gain(set, node.covered);
+                    if (gain > 0) {
+                        node.gains[n++] = gain;
+                        if (gain > bestGain) {
+                            bestGain = gain;
+                            bestSet = set;
+                        }
+                    }
+                }
+                // Counting bound: the budget largest gains must reach the target
+                int remaining = s.target - node.coveredWeight;
+                if (n == 0 || (long) bestGain * budget < remaining) {
+                    break;
+                }
+                if (bestGain < remaining) {
+                    Arrays.sort(node.gains, 0, n);
+                    long reachable = 0;
+                    for (int i = n - 1; i >= 0 && i >= n - budget; i--) {
+                        reachable += node.gains[i];
+                    }
+                    if (reachable < remaining) {
+                        break;
+                    }
+                }
+                // Lagrangian bound near the root, the root itself gets more subgradient iterations
+                if (u != null) {
+                    int iterations = node.nChosen == 0 && nExcluded == 0 ? ROOT_LAGRANGIAN_ITERATIONS : NODE_LAGRANGIAN_ITERATIONS;
+                    double l = s.lagrangianBound(node, u, remaining, budget + 1, iterations);
+                    // A bound costs as much as many plain nodes, so the limits are checked after each one
+                    s.count(node.explored);
+                    node.explored = 0;
+                    if (Math.ceil(l - EPSILON) > budget) {
+                        break;
+                    }
+                    // Reduced cost fixing: sets whose inclusion lifts the bound over the budget are excluded in this
+                    // subtree, and the branch is on the set with the lowest reduced cost
+                    double[] costs = node.costs;
+                    bestSet = -1;
+                    for (int set : s.candidates) {
+                        if ((node.excluded[set >>> 6] & (1L << set)) != 0) continue;
+                        if (costs[set] > 0 && Math.ceil(l + costs[set] - EPSILON) > budget) {
+                            excludedHere = append(excludedHere, nExcluded++, set);
+                            node.excluded[set >>> 6] |= 1L << set;
+                        } else if (bestSet < 0 || costs[set] < costs[bestSet]) {
+                            int gain = s.gain(set, node.covered);
+                            if (gain > 0) {
+                                bestSet = set;
+                                bestGain = gain;
+                            }
+                        }
+                    }
+                    if (bestSet < 0) {
+                        break;
+                    }
+                }
+
+                // Include the chosen set, in another task if some worker is idle
+                if (node.nChosen < MAX_SPLIT_DEPTH && getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS) {
+                    var child = new Node(node);
+                    child.include(bestSet, bestGain);
+                    var task = new Task(s, child);
+                    task.fork();
+                    forked.add(task);
+                } else {
+                    node.include(bestSet, bestGain);
+                    explore(node, forked);
+                    node.removeLast(bestGain);
+                }
+
+                // Then exclude it, in this same frame
+                excludedHere = append(excludedHere, nExcluded++, bestSet);
+                node.excluded[bestSet >>> 6] |= 1L << bestSet;
+            }
+
+            for (int i = 0; i < nExcluded; i++) {
+                int set = excludedHere[i];
+                node.excluded[set >>> 6] &= ~(1L << set);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Multi-core population search for a single instance.
+ * <p>
+ * An elite pool is seeded with greedy solutions improved by {@link TabuSearchEngine}. Then, one long running task per
+ * worker of a fork-join pool repeatedly picks two elites, relinks them in both directions with {@link PathRelinking},
+ * improves the best intermediate solution with its own tabu engine and offers the result back to the pool.
+ * Workers do not synchronize between iterations, the only shared state is the elite pool and the global best,
+ * which is published through a lock free {@link AtomicReference}.
+ * <p>
+ * Each worker uses its own {@link SplittableRandom}, split from a root seeded by {@link RandomManager}.
+ * This algorithm already uses every core, run it with parallelExecutor disabled.
+ */
+public class PSSCPopulationSearch
+        extends Algorithm<PSSCSolution, PSSCInstance> {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long DEFAULT_STEPS_PER_IMPROVEMENT = 20_000;
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+    private static final int TENURE = 2;
+
+    private final int nWorkers;
+    private final int poolSize;
+    private final long stepsPerImprovement;
+    private final long timeLimitMillis;
+
+    public PSSCPopulationSearch(String name) {
+        this(name, Runtime.getRuntime().availableProcessors(), DEFAULT_POOL_SIZE, DEFAULT_STEPS_PER_IMPROVEMENT, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Create a population search algorithm
+     * @param name algorithm name
+     * @param nWorkers number of threads of the fork-join pool
+     * @param poolSize maximum number of elite solutions
+     * @param stepsPerImprovement tabu steps used to improve each new solution
+     * @param timeLimitMillis maximum run time, in milliseconds
+     */
+    public PSSCPopulationSearch(String name, int nWorkers, int poolSize, long stepsPerImprovement, long timeLimitMillis) {
+        super(name);
+        if (nWorkers < 1 || poolSize < 2 || stepsPerImprovement < 1 || timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Invalid population search parameters");
+        }
+        this.nWorkers = nWorkers;
+        this.poolSize = poolSize;
+        this.stepsPerImprovement = stepsPerImprovement;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    @Override
+    public PSSCSolution algorithm(PSSCInstance instance) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        var root = new SplittableRandom(RandomManager.getRandom().nextLong());
+        var pool = new ElitePool(poolSize);
+        var globalBest = new AtomicReference<PSSCSolution>();
+
+        // Greedy seeds are built in the calling thread, the Mork random generator is not shared with the workers
+        var greedy = new PSSCGreedyConstructive(true);
+        var seeds = new ArrayList<PSSCSolution>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            seeds.add(greedy.construct(new PSSCSolution(instance)));
+        }
+
+        var forkJoinPool = new ForkJoinPool(nWorkers);
+        try {
+            var seedTasks = new ArrayList<ForkJoinTask<?>>(poolSize);
+            for (var seed : seeds) {
+                var rnd = root.split();
+                seedTasks.add(forkJoinPool.submit(() -> {
+                    var improved = new TabuSearchEngine(TENURE).improve(seed, rnd, stepsPerImprovement, deadline, 0);
+                    publish(improved, pool, globalBest);
+                }));
+            }
+            seedTasks.forEach(ForkJoinTask::join);
+
+            var workers = new ArrayList<ForkJoinTask<?>>(nWorkers);
+            for (int i = 0; i < nWorkers; i++) {
+                var rnd = root.split();
+                workers.add(forkJoinPool.submit(() -> work(pool, globalBest, rnd, deadline)));
+            }
+            workers.forEach(ForkJoinTask::join);
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+        return globalBest.get();
+    }
+
+    private void work(ElitePool pool, AtomicReference<PSSCSolution> globalBest, SplittableRandom rnd, long deadline) {
+        var engine = new TabuSearchEngine(TENURE);
+        while (System.nanoTime() - deadline < 0) {
+            var parents = pool.pickPair(rnd);
+            if (parents == null) {
+                return;
+            }
+            var child = PathRelinking.relinkBoth(parents[0], parents[1]);
+            if (child == null) {
+                // Parents too close to each other, restart from one of them to keep the worker busy
+                child = parents[0];
+            }
+            var improved = engine.improve(child, rnd, stepsPerImprovement, deadline, 0);
+            publish(improved, pool, globalBest);
+        }
+    }
+
+    private static void publish(PSSCSolution solution, ElitePool pool, AtomicReference<PSSCSolution> globalBest) {
+        if (!solution.isCovered()) {
+            return;
+        }
+        pool.offer(solution);
+        globalBest.accumulateAndGet(solution, (current, candidate) ->
+                current == null || candidate.getScore() < current.getScore() ? candidate : current);
+    }
+}
@@ -0,0 +1,39 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCReduction;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+
+/**
+ * Run any algorithm on the reduced instance, see {@link PSSCReduction}, and lift its solution back to the
+ * original instance, so scores, validation and exported solutions always refer to the original set ids.
+ * The reduction is computed once per instance and shared by every run.
+ * Note that the time to best of the lifted solution is the time it was lifted, i.e. the end of the run.
+ */
+public class PSSCReducedAlgorithm
+        extends Algorithm<PSSCSolution, PSSCInstance> {
+
+    private final Algorithm<PSSCSolution, PSSCInstance> algorithm;
+
+    /**
+     * Wrap an algorithm
+     * @param name algorithm name
+     * @param algorithm algorithm to run on the reduced instance
+     */
+    public PSSCReducedAlgorithm(String name, Algorithm<PSSCSolution, PSSCInstance> algorithm) {
+        super(name);
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public PSSCSolution algorithm(PSSCInstance instance) {
+        var reduction = instance.getReduction();
+        var reduced = reduction.getReducedInstance();
+        if (reduced.getMinCoveredRequired() == 0) {
+            // Forced sets are enough
+            return reduction.lift(new PSSCSolution(reduced));
+        }
+        return reduction.lift(algorithm.algorithm(reduced));
+    }
+}
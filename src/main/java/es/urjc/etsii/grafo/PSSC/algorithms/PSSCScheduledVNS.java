@@ -0,0 +1,80 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Several VNS trajectories sharing the available cores through a {@link TrajectoryScheduler},
+ * which gives more time to the trajectories that are improving. Trajectory statistics are logged at the end of each run.
+ * This algorithm already uses several threads, run it with parallelExecutor disabled.
+ */
+public class PSSCScheduledVNS
+        extends Algorithm<PSSCSolution, PSSCInstance> {
+
+    private static final Logger log = LoggerFactory.getLogger(PSSCScheduledVNS.class);
+
+    private static final int DEFAULT_TRAJECTORIES = 8;
+    private static final long DEFAULT_SLICE_MILLIS = 50;
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 60_000;
+    private static final int ELITE_SIZE = 5;
+
+    private final int nTrajectories;
+    private final int nWorkers;
+    private final long sliceMillis;
+    private final long timeLimitMillis;
+
+    public PSSCScheduledVNS(String name) {
+        this(name, DEFAULT_TRAJECTORIES, Runtime.getRuntime().availableProcessors(), DEFAULT_SLICE_MILLIS, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Create a scheduled VNS
+     * @param name algorithm name
+     * @param nTrajectories number of concurrent trajectories
+     * @param nWorkers number of threads
+     * @param sliceMillis length of each time slice, in milliseconds
+     * @param timeLimitMillis maximum run time, in milliseconds
+     */
+    public PSSCScheduledVNS(String name, int nTrajectories, int nWorkers, long sliceMillis, long timeLimitMillis) {
+        super(name);
+        if (nTrajectories < 1 || nWorkers < 1 || sliceMillis < 1 || timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Invalid scheduled VNS parameters");
+        }
+        this.nTrajectories = nTrajectories;
+        this.nWorkers = nWorkers;
+        this.sliceMillis = sliceMillis;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    @Override
+    public PSSCSolution algorithm(PSSCInstance instance) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        var greedy = new PSSCGreedyConstructive(true);
+        var initial = new ArrayList<PSSCSolution>(nTrajectories);
+        for (int i = 0; i < nTrajectories; i++) {
+            initial.add(greedy.construct(new PSSCSolution(instance)));
+        }
+
+        var scheduler = new TrajectoryScheduler(initial, nWorkers, TimeUnit.MILLISECONDS.toNanos(sliceMillis),
+                ELITE_SIZE, RandomManager.getRandom().nextLong());
+        var metrics = VNSMetricsRecorder.startRun();
+        scheduler.setMetrics(metrics);
+        var best = scheduler.run(deadline);
+        VNSMetricsRecorder.endRun(getName(), instance, metrics);
+
+        for (var stats : scheduler.getStats()) {
+            log.info("{} trajectory {}: {} slices, {} ms, {} steps, {} improvements, {} restarts, best {}",
+                    instance.getId(), stats.id(), stats.slices(), TimeUnit.NANOSECONDS.toMillis(stats.nanos()),
+                    stats.steps(), stats.improvements(), stats.restarts(), stats.bestScore());
+        }
+        return best;
+    }
+}
@@ -0,0 +1,55 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.algorithms.Algorithm;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration checking tabu search, starting from the lazy greedy solution.
+ * See {@link TabuSearchEngine} for the details of the search.
+ */
+public class PSSCTabuSearch
+        extends Algorithm<PSSCSolution, PSSCInstance> {
+
+    private static final long DEFAULT_MAX_STEPS = 1_000_000;
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 10_000;
+    private static final int DEFAULT_TENURE = 2;
+
+    private final long maxSteps;
+    private final long timeLimitMillis;
+    private final int tenure;
+
+    public PSSCTabuSearch(String name) {
+        this(name, DEFAULT_MAX_STEPS, DEFAULT_TIME_LIMIT_MILLIS, DEFAULT_TENURE);
+    }
+
+    /**
+     * Create a tabu search algorithm
+     * @param name algorithm name
+     * @param maxSteps maximum number of swap steps
+     * @param timeLimitMillis maximum run time, in milliseconds
+     * @param tenure number of steps a removed set is tabu, in addition to configuration checking
+     */
+    public PSSCTabuSearch(String name, long maxSteps, long timeLimitMillis, int tenure) {
+        super(name);
+        if (maxSteps < 0 || timeLimitMillis < 0 || tenure < 0) {
+            throw new IllegalArgumentException("Tabu search limits and tenure must be non negative");
+        }
+        this.maxSteps = maxSteps;
+        this.timeLimitMillis = timeLimitMillis;
+        this.tenure = tenure;
+    }
+
+    @Override
+    public PSSCSolution algorithm(PSSCInstance instance) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        PSSCSolution initial = new PSSCGreedyConstructive(true)
+                                   .construct(new PSSCSolution(instance));
+        return new TabuSearchEngine(tenure)
+                .improve(initial, RandomManager.getRandom(), maxSteps, deadline, 0);
+    }
+}
@@ -2,34 +2,112 @@ package es.urjc.etsii.grafo.PSSC.algorithms;
 
 import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
 import es.urjc.etsii.grafo.PSSC.model.*;
-import es.urjc.etsii.grafo.PSSC.model.neigh.*;
-import es.urjc.etsii.grafo.PSSC.shake.ExamplePSSCShake;
 import es.urjc.etsii.grafo.algorithms.Algorithm;
-import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
+import es.urjc.etsii.grafo.create.Constructive;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stand‑alone Variable Neighborhood Search (Drop → Swap → Add) compatible with
  * Grafo 0.21 API (ExploreResult exposes moves()).
+ * Neighborhoods are explored through their packed, allocation-free path:
+ * only the executed move is materialized. The search itself is implemented
+ * by {@link VNSTrajectory}, run here until one of the {@link VNSTermination} criteria is met.
+ * Optionally, a {@link FixAndOptimize} large neighborhood move is tried after every
+ * full cycle without gains, before shaking. The search can also go back to the best solution before shaking.
+ * Per-neighborhood metrics are reported to {@link VNSMetricsRecorder} when enabled.
+ * The optimality gap of each run against the instance lower bound is logged. The bound is computed once per instance
+ * and stored as its {@code lowerBound} property, so it is also part of the results. The search can stop as soon as
+ * it reaches the bound, see {@link VNSTermination#stopAtLowerBound()}.
+ * On large instances, the neighborhoods can be restricted to a periodically repriced core problem.
  */
 public class PSSCVNSRunner
         extends Algorithm<PSSCSolution, PSSCInstance> {
 
+    private static final Logger log = LoggerFactory.getLogger(PSSCVNSRunner.class);
+
     /* configuration */
 
-    private static final List<Neighborhood<?, PSSCSolution, PSSCInstance>> NHOODS = List.of(
-            new RemoveNeighborhood(),
-            new SwapNeighborhood(),
-            new AddNeighborhood()
-    );
-    private static final int MAX_PLATEAU = 200;
+    /**
+     * Iterations between two wall clock checks
+     */
+    private static final int TIME_CHECK_MASK = 0x3F;
 
-    private final ExamplePSSCShake shake = new ExamplePSSCShake();
+    private final Constructive<PSSCSolution, PSSCInstance> constructive;
+    private final VNSTermination termination;
+    private final FixAndOptimize largeNeighborhood;
+    private final boolean restoreBest;
+    private final int coreRepriceSteps;
 
     public PSSCVNSRunner(String name) {
+        this(name, VNSTermination.DEFAULT, null);
+    }
+
+    /**
+     * Create a VNS with a large neighborhood move
+     * @param name algorithm name
+     * @param largeNeighborhood move tried when all neighborhoods fail, null to always shake
+     */
+    public PSSCVNSRunner(String name, FixAndOptimize largeNeighborhood) {
+        this(name, VNSTermination.DEFAULT, largeNeighborhood);
+    }
+
+    /**
+     * Create a VNS with custom termination criteria
+     * @param name algorithm name
+     * @param termination when to stop the search
+     * @param largeNeighborhood move tried when all neighborhoods fail, null to always shake
+     */
+    public PSSCVNSRunner(String name, VNSTermination termination, FixAndOptimize largeNeighborhood) {
+        this(name, termination, largeNeighborhood, false);
+    }
+
+    /**
+     * Create a VNS that shakes the best solution found so far, instead of the current one
+     * @param name algorithm name
+     * @param termination when to stop the search
+     * @param largeNeighborhood move tried when all neighborhoods fail, null to always shake
+     * @param restoreBest true to go back to the best solution before shaking, see {@link VNSTrajectory#setRestoreBest(boolean)}
+     */
+    public PSSCVNSRunner(String name, VNSTermination termination, FixAndOptimize largeNeighborhood, boolean restoreBest) {
+        this(name, termination, largeNeighborhood, restoreBest, 0);
+    }
+
+    /**
+     * Create a VNS whose neighborhoods only add sets from a core problem, see {@link PSSCCore}
+     * @param name algorithm name
+     * @param termination when to stop the search
+     * @param largeNeighborhood move tried when all neighborhoods fail, null to always shake
+     * @param restoreBest true to go back to the best solution before shaking, see {@link VNSTrajectory#setRestoreBest(boolean)}
+     * @param coreRepriceSteps iterations between two repricings of the core, 0 to consider every set
+     */
+    public PSSCVNSRunner(String name, VNSTermination termination, FixAndOptimize largeNeighborhood, boolean restoreBest, int coreRepriceSteps) {
+        this(name, new PSSCGreedyConstructive(), termination, largeNeighborhood, restoreBest, coreRepriceSteps);
+    }
+
+    /**
+     * Create a VNS with a custom initial solution, for example {@code new PSSCGreedyConstructive(true)} for the lazy greedy
+     * @param name algorithm name
+     * @param constructive builds the initial solution, the default is the scan-all-sets {@link PSSCGreedyConstructive}
+     * @param termination when to stop the search
+     * @param largeNeighborhood move tried when all neighborhoods fail, null to always shake
+     * @param restoreBest true to go back to the best solution before shaking, see {@link VNSTrajectory#setRestoreBest(boolean)}
+     * @param coreRepriceSteps iterations between two repricings of the core, 0 to consider every set
+     */
+    public PSSCVNSRunner(String name, Constructive<PSSCSolution, PSSCInstance> constructive, VNSTermination termination,
+                         FixAndOptimize largeNeighborhood, boolean restoreBest, int coreRepriceSteps) {
         super(name);
+        if (coreRepriceSteps < 0) {
+            throw new IllegalArgumentException("Core reprice steps must be non negative, got " + coreRepriceSteps);
+        }
+        this.constructive = constructive;
+        this.termination = termination;
+        this.largeNeighborhood = largeNeighborhood;
+        this.restoreBest = restoreBest;
+        this.coreRepriceSteps = coreRepriceSteps;
     }
 
     /* main loop */
@@ -37,40 +115,38 @@ public class PSSCVNSRunner
     @Override
     public PSSCSolution algorithm(PSSCInstance instance) {
 
-        PSSCSolution current = new PSSCGreedyConstructive()
-                                   .construct(new PSSCSolution(instance));
-
-        int bestScore = current.getScore();
-        int plateau   = 0;
-        int k         = 0;                         // neighbourhood index
-
-        while (plateau < MAX_PLATEAU) {
-
-            var neigh   = NHOODS.get(k);
-            Optional<?> optMove = neigh.explore(current)
-                                       .moves()        // Stream<M>
-                                       .findFirst();   // Optional<M>
-
-            if (optMove.isPresent()) {             // first‑improvement
-                ((PSSCBaseMove) optMove.get()).execute(current);
-
-                if (current.getScore() < bestScore) {
-                    bestScore = current.getScore();
-                    k = 0;
-                    plateau = 0;
-                } else {
-                    k = (k + 1) % NHOODS.size();
-                    plateau++;
-                }
-
-            } else {                               // neighbourhood empty
-                k = (k + 1) % NHOODS.size();
-                if (k == 0) {                      // full cycle without gains
-                    current = shake.shake(current, 1);
-                }
-                plateau++;
+        PSSCSolution current = constructive.construct(new PSSCSolution(instance));
+
+        long start = System.nanoTime();
+        long timeLimit = TimeUnit.MILLISECONDS.toNanos(termination.timeLimitMillis());
+        int target = termination.targetScore().applyAsInt(instance.getId());
+        if (termination.stopAtLowerBound()) {
+            target = Math.max(target, instance.getLowerBound());
+        }
+
+        var trajectory = new VNSTrajectory(current, RandomManager.getRandom(), largeNeighborhood, termination.maxPlateau());
+        var metrics = VNSMetricsRecorder.startRun();
+        trajectory.setMetrics(metrics);
+        trajectory.setRestoreBest(restoreBest);
+        if (coreRepriceSteps > 0) {
+            trajectory.setCore(PSSCCore.DEFAULT_SETS_PER_POINT, coreRepriceSteps);
+        }
+        for (long iteration = 0; iteration < termination.maxIterations() && !trajectory.isFinished(); iteration++) {
+            if ((iteration & TIME_CHECK_MASK) == 0 && System.nanoTime() - start >= timeLimit) {
+                break;
+            }
+            if (trajectory.getBest().getScore() <= target) {
+                break;
             }
+            trajectory.step();
         }
-        return current;
+        VNSMetricsRecorder.endRun(getName(), instance, metrics);
+        // The best solution keeps the last modified time of the move that produced it, i.e. its time to best
+        var best = trajectory.getBest();
+        // Only the first run of each instance computes the bound, later runs read the cached value
+        int score = best.getScore(), bound = instance.getLowerBound();
+        log.info("{} {}: score {}, lower bound {}, gap {}%", getName(), instance.getId(), score, bound,
+                String.format("%.2f", score == 0 ? 0 : 100.0 * (score - bound) / score));
+        return best;
     }
 }
@@ -0,0 +1,87 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.util.collections.BitSet;
+
+/**
+ * Greedy path relinking between the chosen sets of two solutions.
+ * <p>
+ * Starting from the initiating solution, each step either drops a set only chosen by the initiating solution,
+ * if the solution stays feasible, or adds the set only chosen by the guiding solution with the highest add gain.
+ * The best feasible solution strictly inside the path is returned, so the result always differs from both ends.
+ */
+final class PathRelinking {
+
+    private PathRelinking() {}
+
+    /**
+     * Relink in both directions and keep the best intermediate solution
+     * @param a first elite, not modified
+     * @param b second elite, not modified
+     * @return best feasible intermediate solution, or null if the path between a and b is too short
+     */
+    static PSSCSolution relinkBoth(PSSCSolution a, PSSCSolution b) {
+        var forward = relink(a, b);
+        var backward = relink(b, a);
+        if (forward == null) return backward;
+        if (backward == null) return forward;
+        return backward.getScore() < forward.getScore() ? backward : forward;
+    }
+
+    /**
+     * Walk from the initiating solution toward the guiding one
+     * @param initiating start of the path, not modified
+     * @param guiding end of the path, not modified
+     * @return best feasible intermediate solution, or null if there is none
+     */
+    static PSSCSolution relink(PSSCSolution initiating, PSSCSolution guiding) {
+        var current = initiating.cloneSolution();
+        var toAdd = guiding.getChosenSets().clone();
+        toAdd.andNot(initiating.getChosenSets());
+        var toDrop = initiating.getChosenSets().clone();
+        toDrop.andNot(guiding.getChosenSets());
+
+        PSSCSolution best = null;
+        int remaining = toAdd.size() + toDrop.size();
+        while (remaining > 1) {
+            int drop = bestDrop(current, toDrop);
+            if (drop >= 0) {
+                current.removeSet(drop);
+                toDrop.remove(drop);
+            } else {
+                int add = bestAdd(current, toAdd);
+                if (add < 0) {
+                    // Only infeasible drops left, the rest of the path cannot contain feasible solutions until the end
+                    break;
+                }
+                current.addSet(add);
+                toAdd.remove(add);
+            }
+            remaining--;
+            if (current.isCovered() && (best == null || current.getScore() < best.getScore())) {
+                best = current.cloneSolution();
+            }
+        }
+        return best;
+    }
+
+    private static int bestDrop(PSSCSolution solution, BitSet candidates) {
+        int best = -1;
+        for (int set : candidates) {
+            if (solution.canRemove(set) && (best < 0 || solution.getDropLoss(set) < solution.getDropLoss(best))) {
+                best = set;
+            }
+        }
+        return best;
+    }
+
+    private static int bestAdd(PSSCSolution solution, BitSet candidates) {
+        int best = -1;
+        for (int set : candidates) {
+            if (best < 0 || solution.getAddGain(set) > solution.getAddGain(best)) {
+                best = set;
+            }
+        }
+        return best;
+    }
+}
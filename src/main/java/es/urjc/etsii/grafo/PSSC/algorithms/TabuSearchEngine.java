@@ -0,0 +1,369 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Configuration checking tabu search for the PSCP, in the spirit of the weighted local
+ * search used by the reference approach (see sota/sota.txt).
+ * <p>
+ * Each time the current solution is feasible it is recorded if it improves the best one,
+ * and the set whose removal uncovers the least weight is dropped. While infeasible, the
+ * search swaps one chosen set for one set covering a random uncovered point:
+ * <ul>
+ *     <li>Points have weights, uncovered points are periodically reweighted so that the
+ *     search is pushed toward covering points that stay uncovered for long.</li>
+ *     <li>Move scores are the weighted add gain / drop loss of each set, patched incrementally
+ *     only for the sets covering points whose cover count changes.</li>
+ *     <li>Configuration checking: a removed set cannot be added back until one of its points
+ *     changes state. The set just added cannot be removed in the next step, and a removed set
+ *     is tabu for a short tenure. All tabu checks are constant time.</li>
+ *     <li>Aspiration: a tabu set is allowed if adding it makes the solution feasible.</li>
+ * </ul>
+ * An engine instance can be reused for several runs but it is not thread safe. If assertions are enabled,
+ * the incremental scores are checked against a full recomputation after every step.
+ */
+public class TabuSearchEngine {
+
+    /**
+     * Number of uncovered points whose weight is increased on each step
+     */
+    private static final int REWEIGHTED_POINTS = 8;
+
+    /**
+     * Weights are halved when the average point weight reaches this value
+     */
+    private static final int MAX_AVERAGE_WEIGHT = 64;
+
+    private final int tenure;
+
+    private PSSCInstance instance;
+    private int[] setOffsets, setPoints, pointOffsets, pointSets;
+
+    private PSSCSolution current;
+    private RandomGenerator rnd;
+    private long step;
+
+    private int[] weight;
+    private long totalWeight;
+    private long[] weightedGain;
+    private long[] weightedLoss;
+
+    private boolean[] confChanged;
+    private long[] tabuUntil;
+    private long[] lastChange;
+    private int lastAdded;
+
+    private int[] chosenList, chosenPosition;
+    private int nChosen;
+    private int[] uncoveredList, uncoveredPosition;
+    private int nUncovered;
+
+    /**
+     * Create a tabu search engine
+     * @param tenure number of steps a removed set is tabu, in addition to configuration checking
+     */
+    public TabuSearchEngine(int tenure) {
+        this.tenure = tenure;
+    }
+
+    /**
+     * Improve a solution
+     * @param initial feasible starting solution, not modified
+     * @param rnd random generator used by this run
+     * @param maxSteps maximum number of swap steps
+     * @param deadlineNanos stop when {@link System#nanoTime()} reaches this value
+     * @param target stop as soon as a feasible solution with this score or lower is found, 0 to disable
+     * @return best feasible solution found, may be the initial solution if it could not be improved
+     */
+    public PSSCSolution improve(PSSCSolution initial, RandomGenerator rnd, long maxSteps, long deadlineNanos, int target) {
+        init(initial, rnd);
+        PSSCSolution best = initial;
+        int bestScore = current.isCovered() ? current.getScore() : Integer.MAX_VALUE;
+
+        for (step = 1; step <= maxSteps; step++) {
+            while (current.isCovered()) {
+                if (current.getScore() < bestScore) {
+                    best = current.cloneSolution();
+                    best.notifyUpdate();
+                    bestScore = best.getScore();
+                }
+                if (bestScore <= target || nChosen == 0) {
+                    return best;
+                }
+                int out = selectRemove(false);
+                remove(out);
+            }
+
+            if ((step & 0xFF) == 0 && System.nanoTime() - deadlineNanos >= 0) {
+                break;
+            }
+
+            int out = selectRemove(true);
+            if (out >= 0) {
+                remove(out);
+            }
+            int in = selectAdd();
+            if (in >= 0) {
+                add(in);
+                lastAdded = in;
+            }
+            reweight();
+            assert stateIsConsistent();
+        }
+        return best;
+    }
+
+    private void init(PSSCSolution initial, RandomGenerator rnd) {
+        this.rnd = rnd;
+        this.step = 0;
+        this.lastAdded = -1;
+        if (instance != initial.getInstance()) {
+            instance = initial.getInstance();
+            setOffsets = instance.getSetOffsets();
+            setPoints = instance.getSetPoints();
+            pointOffsets = instance.getPointOffsets();
+            pointSets = instance.getPointSets();
+            int nSets = instance.getnSets(), nPoints = instance.getnPoints();
+            weight = new int[nPoints];
+            weightedGain = new long[nSets];
+            weightedLoss = new long[nSets];
+            confChanged = new boolean[nSets];
+            tabuUntil = new long[nSets];
+            lastChange = new long[nSets];
+            chosenList = new int[nSets];
+            chosenPosition = new int[nSets];
+            uncoveredList = new int[nPoints];
+            uncoveredPosition = new int[nPoints];
+        }
+
+        // The working solution starts empty and the initial sets are added one by one, so every score is consistent
+        current = new PSSCSolution(instance);
+        // Points start with the number of original points they represent, 1 unless the instance is reduced
+        totalWeight = 0;
+        for (int p = 0; p < weight.length; p++) {
+            weight[p] = instance.pointWeight(p);
+            totalWeight += weight[p];
+        }
+        Arrays.fill(weightedLoss, 0);
+        Arrays.fill(confChanged, true);
+        Arrays.fill(tabuUntil, 0);
+        Arrays.fill(lastChange, 0);
+        for (int s = 0; s < weightedGain.length; s++) {
+            long gain = 0;
+            for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                gain += weight[setPoints[i]];
+            }
+            weightedGain[s] = gain;
+        }
+        nChosen = 0;
+        nUncovered = weight.length;
+        for (int p = 0; p < nUncovered; p++) {
+            uncoveredList[p] = p;
+            uncoveredPosition[p] = p;
+        }
+        for (int set : initial.getChosenSets()) {
+            add(set);
+        }
+    }
+
+    /**
+     * Chosen set with the lowest weighted loss, ties broken by the oldest state change
+     * @param avoidLastAdded if true, the set added in the previous step cannot be selected
+     * @return set to remove
+     */
+    private int selectRemove(boolean avoidLastAdded) {
+        int best = -1;
+        for (int i = 0; i < nChosen; i++) {
+            int s = chosenList[i];
+            if (avoidLastAdded && s == lastAdded && nChosen > 1) continue;
+            if (best < 0 || weightedLoss[s] < weightedLoss[best]
+                    || (weightedLoss[s] == weightedLoss[best] && lastChange[s] < lastChange[best])) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Set covering a random uncovered point with the highest weighted gain, among those allowed by
+     * configuration checking and the tabu tenure, or any set that makes the solution feasible.
+     * Useless sets are only considered if every other set covering the point is tabu.
+     * @return set to add, -1 if all points are covered
+     */
+    private int selectAdd() {
+        if (nUncovered == 0) {
+            return -1;
+        }
+        int point = uncoveredList[rnd.nextInt(nUncovered)];
+        var useless = instance.getUselessSets();
+        int best = -1, fallback = -1;
+        for (int j = pointOffsets[point]; j < pointOffsets[point + 1]; j++) {
+            int s = pointSets[j];
+            boolean aspiration = current.getCoveredCount() + current.getAddGain(s) >= current.minCoveredRequired();
+            boolean allowed = aspiration || (confChanged[s] && tabuUntil[s] <= step && !useless.contains(s));
+            if (allowed && isBetterAdd(s, best)) {
+                best = s;
+            }
+            if (isBetterAdd(s, fallback)) {
+                fallback = s;
+            }
+        }
+        return best >= 0 ? best : fallback;
+    }
+
+    private boolean isBetterAdd(int candidate, int incumbent) {
+        return incumbent < 0 || weightedGain[candidate] > weightedGain[incumbent]
+                || (weightedGain[candidate] == weightedGain[incumbent] && lastChange[candidate] < lastChange[incumbent]);
+    }
+
+    private void add(int set) {
+        for (int i = setOffsets[set]; i < setOffsets[set + 1]; i++) {
+            int p = setPoints[i];
+            int count = current.getCoverCount(p);
+            if (count == 0) {
+                weightedLoss[set] += weight[p];
+                for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                    int t = pointSets[j];
+                    weightedGain[t] -= weight[p];
+                    confChanged[t] = true;
+                }
+                removeUncovered(p);
+            } else if (count == 1) {
+                weightedLoss[uniqueCoveringSet(p)] -= weight[p];
+            }
+        }
+        current.addSet(set);
+        chosenPosition[set] = nChosen;
+        chosenList[nChosen++] = set;
+        lastChange[set] = step;
+    }
+
+    private void remove(int set) {
+        current.removeSet(set);
+        int last = chosenList[--nChosen];
+        chosenList[chosenPosition[set]] = last;
+        chosenPosition[last] = chosenPosition[set];
+
+        for (int i = setOffsets[set]; i < setOffsets[set + 1]; i++) {
+            int p = setPoints[i];
+            int count = current.getCoverCount(p);
+            if (count == 0) {
+                weightedLoss[set] -= weight[p];
+                for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                    int t = pointSets[j];
+                    weightedGain[t] += weight[p];
+                    confChanged[t] = true;
+                }
+                uncoveredPosition[p] = nUncovered;
+                uncoveredList[nUncovered++] = p;
+            } else if (count == 1) {
+                weightedLoss[uniqueCoveringSet(p)] += weight[p];
+            }
+        }
+        confChanged[set] = false;
+        tabuUntil[set] = step + tenure;
+        lastChange[set] = step;
+    }
+
+    /**
+     * Increase the weight of a few random uncovered points, halving all weights when they grow too large
+     */
+    private void reweight() {
+        for (int i = 0; i < Math.min(REWEIGHTED_POINTS, nUncovered); i++) {
+            int p = uncoveredList[rnd.nextInt(nUncovered)];
+            weight[p]++;
+            totalWeight++;
+            for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                weightedGain[pointSets[j]]++;
+            }
+        }
+        if (totalWeight >= (long) MAX_AVERAGE_WEIGHT * weight.length) {
+            smoothWeights();
+        }
+    }
+
+    private void smoothWeights() {
+        totalWeight = 0;
+        for (int p = 0; p < weight.length; p++) {
+            weight[p] = Math.max(1, weight[p] / 2);
+            totalWeight += weight[p];
+        }
+        for (int s = 0; s < weightedGain.length; s++) {
+            long gain = 0, loss = 0;
+            boolean chosen = current.getChosenSets().contains(s);
+            for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                int p = setPoints[i];
+                int count = current.getCoverCount(p);
+                if (count == 0) gain += weight[p];
+                if (chosen && count == 1) loss += weight[p];
+            }
+            weightedGain[s] = gain;
+            weightedLoss[s] = loss;
+        }
+    }
+
+    /**
+     * Recompute the weighted scores and the chosen and uncovered lists from scratch and compare them with the
+     * incrementally maintained ones. Only used in assertions, as it is expensive.
+     * @return true if the search state is consistent with the current solution and the point weights
+     */
+    boolean stateIsConsistent() {
+        var chosen = current.getChosenSets();
+        if (nChosen != chosen.size()) {
+            return false;
+        }
+        for (int i = 0; i < nChosen; i++) {
+            if (!chosen.contains(chosenList[i]) || chosenPosition[chosenList[i]] != i) {
+                return false;
+            }
+        }
+        long total = 0;
+        int uncovered = 0;
+        for (int p = 0; p < weight.length; p++) {
+            total += weight[p];
+            if (current.getCoverCount(p) == 0) {
+                uncovered++;
+                if (uncoveredPosition[p] >= nUncovered || uncoveredList[uncoveredPosition[p]] != p) {
+                    return false;
+                }
+            }
+        }
+        if (uncovered != nUncovered || total != totalWeight) {
+            return false;
+        }
+        for (int s = 0; s < weightedGain.length; s++) {
+            long gain = 0, loss = 0;
+            boolean isChosen = chosen.contains(s);
+            for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                int p = setPoints[i];
+                int count = current.getCoverCount(p);
+                if (count == 0) gain += weight[p];
+                if (isChosen && count == 1) loss += weight[p];
+            }
+            if (gain != weightedGain[s] || loss != weightedLoss[s]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removeUncovered(int p) {
+        int last = uncoveredList[--nUncovered];
+        uncoveredList[uncoveredPosition[p]] = last;
+        uncoveredPosition[last] = uncoveredPosition[p];
+    }
+
+    private int uniqueCoveringSet(int point) {
+        var chosen = current.getChosenSets();
+        for (int j = pointOffsets[point]; j < pointOffsets[point + 1]; j++) {
+            if (chosen.contains(pointSets[j])) {
+                return pointSets[j];
+            }
+        }
+        throw new IllegalStateException("Point " + point + " is not covered");
+    }
+}
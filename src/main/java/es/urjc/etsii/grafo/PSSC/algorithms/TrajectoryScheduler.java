@@ -0,0 +1,245 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.shake.ExamplePSSCShake;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Dynamic resource allocation across several VNS trajectories under a fixed wall clock budget.
+ * <p>
+ * Time is divided in rounds. In each round every worker thread has {@link #SLICES_PER_WORKER} time slices, which are
+ * shared among the trajectories proportionally to their recent improvement rate, an exponential moving average of the
+ * best score decrease per slice. Every trajectory keeps a minimum share, so a stalled one can still show progress.
+ * Trajectories never finish on their own, those that do not improve for {@link #IDLE_ROUNDS} rounds restart from a shaken
+ * copy of a random elite solution.
+ * Per-trajectory statistics are available after the run with {@link #getStats()}.
+ */
+public class TrajectoryScheduler {
+
+    /**
+     * Slices per worker and round, also the maximum slices a single trajectory can get per round
+     */
+    static final int SLICES_PER_WORKER = 4;
+
+    /**
+     * Rounds without improvement before a trajectory is restarted from an elite
+     */
+    static final int IDLE_ROUNDS = 3;
+
+    /**
+     * Share of the slices given to every trajectory regardless of its improvement rate, relative to a rate of one
+     */
+    private static final double MIN_SHARE = 0.1;
+
+    /**
+     * Weight of the previous rate in the moving average
+     */
+    private static final double DECAY = 0.7;
+
+    private static final int RESTART_SHAKE = 3;
+
+    /**
+     * Statistics of one trajectory
+     * @param id trajectory index
+     * @param slices time slices allocated to the trajectory
+     * @param nanos time spent running the trajectory, in nanoseconds
+     * @param steps VNS steps executed
+     * @param improvements number of rounds in which the trajectory best score decreased
+     * @param restarts number of restarts from an elite solution
+     * @param bestScore best score found by the trajectory
+     */
+    public record TrajectoryStats(int id, long slices, long nanos, long steps, int improvements, int restarts, int bestScore) {}
+
+    private static final class Slot {
+        final int id;
+        final VNSTrajectory trajectory;
+        final SplittableRandom rnd;
+        double rate;
+        int idleRounds;
+        long slices, nanos;
+        int improvements, restarts;
+
+        Slot(int id, VNSTrajectory trajectory, SplittableRandom rnd) {
+            this.id = id;
+            this.trajectory = trajectory;
+            this.rnd = rnd;
+        }
+    }
+
+    private final int nWorkers;
+    private final long sliceNanos;
+    private final List<Slot> slots = new ArrayList<>();
+    private final ElitePool elites;
+    private final ExamplePSSCShake shake = new ExamplePSSCShake();
+    private int rounds;
+
+    /**
+     * Create a scheduler
+     * @param initialSolutions one feasible starting solution per trajectory, owned by the scheduler from now on
+     * @param nWorkers number of threads
+     * @param sliceNanos length of each time slice, in nanoseconds
+     * @param eliteSize number of elite solutions kept for restarts
+     * @param seed seed used to split the random generator of each trajectory
+     */
+    public TrajectoryScheduler(List<PSSCSolution> initialSolutions, int nWorkers, long sliceNanos, int eliteSize, long seed) {
+        if (initialSolutions.isEmpty() || nWorkers < 1 || sliceNanos < 1) {
+            throw new IllegalArgumentException("Invalid scheduler parameters");
+        }
+        this.nWorkers = nWorkers;
+        this.sliceNanos = sliceNanos;
+        this.elites = new ElitePool(Math.max(2, eliteSize));
+        var root = new SplittableRandom(seed);
+        for (var solution : initialSolutions) {
+            var rnd = root.split();
+            elites.offer(solution.cloneSolution());
+            slots.add(new Slot(slots.size(), new VNSTrajectory(solution, rnd, null, Integer.MAX_VALUE), rnd));
+        }
+    }
+
+    /**
+     * Report the hot path events of every trajectory, metrics must be thread safe
+     * @param metrics metrics to update, {@link VNSMetrics#NOOP} to disable them
+     */
+    public void setMetrics(VNSMetrics metrics) {
+        for (var slot : slots) {
+            slot.trajectory.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * Run the trajectories until the deadline
+     * @param deadlineNanos stop when {@link System#nanoTime()} reaches this value
+     * @return best solution found by any trajectory
+     */
+    public PSSCSolution run(long deadlineNanos) {
+        ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+        try {
+            while (System.nanoTime() - deadlineNanos < 0) {
+                runRound(executor, allocate(), deadlineNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return best();
+    }
+
+    /**
+     * Largest remainder allocation of the round slices, proportional to rate plus the minimum share
+     */
+    private int[] allocate() {
+        int total = nWorkers * SLICES_PER_WORKER;
+        double sum = 0;
+        for (var slot : slots) {
+            sum += MIN_SHARE + slot.rate;
+        }
+        int[] slices = new int[slots.size()];
+        double[] remainders = new double[slots.size()];
+        int given = 0;
+        for (int i = 0; i < slices.length; i++) {
+            double exact = total * (MIN_SHARE + slots.get(i).rate) / sum;
+            slices[i] = Math.min(SLICES_PER_WORKER, (int) exact);
+            remainders[i] = exact - slices[i];
+            given += slices[i];
+        }
+        // Ties are broken starting from a different trajectory each round
+        int first = rounds++ % slices.length;
+        while (given < total) {
+            int next = -1;
+            for (int j = 0; j < slices.length; j++) {
+                int i = (first + j) % slices.length;
+                if (slices[i] < SLICES_PER_WORKER && (next < 0 || remainders[i] > remainders[next])) {
+                    next = i;
+                }
+            }
+            if (next < 0) break;
+            slices[next]++;
+            remainders[next] = -1;
+            given++;
+        }
+        return slices;
+    }
+
+    private void runRound(ExecutorService executor, int[] slices, long deadlineNanos) throws InterruptedException {
+        var tasks = new ArrayList<Callable<Integer>>();
+        var scheduled = new ArrayList<Slot>();
+        for (int i = 0; i < slices.length; i++) {
+            if (slices[i] == 0) continue;
+            var slot = slots.get(i);
+            long budget = Math.min(slices[i] * sliceNanos, Math.max(0, deadlineNanos - System.nanoTime()));
+            slot.slices += slices[i];
+            scheduled.add(slot);
+            tasks.add(() -> {
+                int before = slot.trajectory.getBest().getScore();
+                long start = System.nanoTime();
+                slot.trajectory.runFor(budget);
+                slot.nanos += System.nanoTime() - start;
+                return before - slot.trajectory.getBest().getScore();
+            });
+        }
+
+        List<Future<Integer>> results = executor.invokeAll(tasks);
+        for (int i = 0; i < scheduled.size(); i++) {
+            var slot = scheduled.get(i);
+            int gain;
+            try {
+                gain = results.get(i).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Trajectory " + slot.id + " failed", e.getCause());
+            }
+            int nSlices = slices[slot.id];
+            slot.rate = DECAY * slot.rate + (1 - DECAY) * gain / nSlices;
+            if (gain > 0) {
+                slot.improvements++;
+                slot.idleRounds = 0;
+                elites.offer(slot.trajectory.getBest().cloneSolution());
+            } else {
+                slot.idleRounds++;
+            }
+            if (slot.idleRounds >= IDLE_ROUNDS) {
+                restartFromElite(slot);
+            }
+        }
+    }
+
+    private void restartFromElite(Slot slot) {
+        var elite = elites.pick(slot.rnd).cloneSolution();
+        shake.shake(elite, RESTART_SHAKE, slot.rnd);
+        slot.trajectory.restart(elite);
+        slot.idleRounds = 0;
+        slot.restarts++;
+    }
+
+    private PSSCSolution best() {
+        PSSCSolution best = null;
+        for (var slot : slots) {
+            var candidate = slot.trajectory.getBest();
+            if (best == null || candidate.getScore() < best.getScore()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Statistics of every trajectory, in creation order
+     * @return list of statistics
+     */
+    public List<TrajectoryStats> getStats() {
+        var stats = new ArrayList<TrajectoryStats>(slots.size());
+        for (var slot : slots) {
+            stats.add(new TrajectoryStats(slot.id, slot.slices, slot.nanos, slot.trajectory.getSteps(),
+                    slot.improvements, slot.restarts, slot.trajectory.getBest().getScore()));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,47 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+/**
+ * Hot path events of a VNS trajectory. The default implementation ignores every event,
+ * and trajectories skip timing entirely when {@link #isEnabled()} is false, so disabled metrics cost nothing.
+ */
+public interface VNSMetrics {
+
+    /**
+     * Metrics that ignore every event
+     */
+    VNSMetrics NOOP = new VNSMetrics() {};
+
+    /**
+     * @return true if events should be measured and reported
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * A neighborhood has been explored looking for its first move
+     * @param neighborhood neighborhood index
+     * @param nanos time spent exploring, in nanoseconds
+     * @param bytes heap bytes allocated by the exploration, -1 if allocation cannot be measured
+     * @param foundMove true if the exploration produced a move
+     */
+    default void explored(int neighborhood, long nanos, long bytes, boolean foundMove) {}
+
+    /**
+     * A move has been executed
+     * @param neighborhood neighborhood index
+     * @param improved true if the move improved the best score of the trajectory
+     */
+    default void executed(int neighborhood, boolean improved) {}
+
+    /**
+     * The current solution has been shaken
+     */
+    default void shaken() {}
+
+    /**
+     * The large neighborhood move has been applied
+     * @param improved true if it improved the best score of the trajectory
+     */
+    default void largeNeighborhood(boolean improved) {}
+}
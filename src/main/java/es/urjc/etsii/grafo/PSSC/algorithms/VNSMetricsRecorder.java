@@ -0,0 +1,119 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spring‑boot bean that collects per-neighborhood VNS metrics, see {@link VNSRunMetrics}.
+ * <p>
+ * Disabled by default. If {@code vns.metrics.enabled} is true, the metrics of every run are appended to
+ * {@code vns-metrics-runs.csv} as soon as the run ends, and the metrics aggregated by algorithm and instance
+ * are written to {@code vns-metrics-instances.csv} when the application stops, both inside {@code vns.metrics.folder}.
+ * When disabled, {@link #startRun()} returns {@link VNSMetrics#NOOP} and runs are not timed at all.
+ */
+@Service
+public class VNSMetricsRecorder implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VNSMetricsRecorder.class);
+
+    static final String RUNS_FILE = "vns-metrics-runs.csv";
+    static final String INSTANCES_FILE = "vns-metrics-instances.csv";
+
+    private static volatile VNSMetricsRecorder active;
+
+    @Value("${vns.metrics.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${vns.metrics.folder:results}")
+    private String folder = "results";
+
+    private final Map<String, VNSRunMetrics> byInstance = new ConcurrentHashMap<>();
+    private BufferedWriter runs;
+    private long runCount;
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        var path = Path.of(folder);
+        Files.createDirectories(path);
+        runs = Files.newBufferedWriter(path.resolve(RUNS_FILE));
+        runs.write("algorithm,instance,run," + VNSRunMetrics.CSV_HEADER);
+        runs.newLine();
+        active = this;
+        log.info("VNS metrics enabled, writing to {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (active != this) {
+            return;
+        }
+        active = null;
+        synchronized (this) {
+            runs.close();
+        }
+        try (var writer = Files.newBufferedWriter(Path.of(folder).resolve(INSTANCES_FILE))) {
+            writer.write("algorithm,instance," + VNSRunMetrics.CSV_HEADER);
+            writer.newLine();
+            for (var e : new TreeMap<>(byInstance).entrySet()) {
+                for (var row : e.getValue().toCsvRows(e.getKey() + ",")) {
+                    writer.write(row);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Metrics for a new run
+     * @return fresh metrics if enabled, {@link VNSMetrics#NOOP} otherwise
+     */
+    public static VNSMetrics startRun() {
+        return active == null ? VNSMetrics.NOOP : new VNSRunMetrics(VNSTrajectory.neighborhoodNames());
+    }
+
+    /**
+     * Record the metrics of a finished run, does nothing if they were obtained while disabled
+     * @param algorithm algorithm name
+     * @param instance solved instance
+     * @param metrics metrics returned by {@link #startRun()}
+     */
+    public static void endRun(String algorithm, PSSCInstance instance, VNSMetrics metrics) {
+        var recorder = active;
+        if (recorder != null && metrics instanceof VNSRunMetrics runMetrics) {
+            recorder.record(algorithm + "," + instance.getId(), runMetrics);
+        }
+    }
+
+    private void record(String key, VNSRunMetrics metrics) {
+        var total = byInstance.computeIfAbsent(key, k -> new VNSRunMetrics(VNSTrajectory.neighborhoodNames()));
+        metrics.mergeInto(total);
+        synchronized (this) {
+            try {
+                for (var row : metrics.toCsvRows(key + "," + runCount++ + ",")) {
+                    runs.write(row);
+                    runs.newLine();
+                }
+                runs.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link VNSMetrics} backed by striped counters, so the metrics of several runs can be merged
+ * concurrently from different Mork workers. Explore times are kept in a log2 histogram per neighborhood.
+ * Allocated bytes are only summed, the explorations are expected to allocate nothing.
+ */
+public class VNSRunMetrics implements VNSMetrics {
+
+    private static final int BUCKETS = 64;
+
+    private final List<String> neighborhoods;
+    private final LongAdder[] explores, exploresWithMove, executed, improved, exploreNanos, exploreBytes, measuredExplores;
+    private final LongAdder[][] histogram;
+    private final LongAdder shakes = new LongAdder();
+    private final LongAdder largeNeighborhoods = new LongAdder();
+    private final LongAdder largeNeighborhoodImprovements = new LongAdder();
+
+    /**
+     * Create empty metrics
+     * @param neighborhoods neighborhood names, by index
+     */
+    public VNSRunMetrics(List<String> neighborhoods) {
+        this.neighborhoods = List.copyOf(neighborhoods);
+        int n = neighborhoods.size();
+        explores = adders(n);
+        exploresWithMove = adders(n);
+        executed = adders(n);
+        improved = adders(n);
+        exploreNanos = adders(n);
+        exploreBytes = adders(n);
+        measuredExplores = adders(n);
+        histogram = new LongAdder[n][];
+        for (int i = 0; i < n; i++) {
+            histogram[i] = adders(BUCKETS);
+        }
+    }
+
+    private static LongAdder[] adders(int n) {
+        var adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void explored(int neighborhood, long nanos, long bytes, boolean foundMove) {
+        explores[neighborhood].increment();
+        exploreNanos[neighborhood].add(nanos);
+        histogram[neighborhood][bucket(nanos)].increment();
+        if (bytes >= 0) {
+            exploreBytes[neighborhood].add(bytes);
+            measuredExplores[neighborhood].increment();
+        }
+        if (foundMove) {
+            exploresWithMove[neighborhood].increment();
+        }
+    }
+
+    @Override
+    public void executed(int neighborhood, boolean improved) {
+        executed[neighborhood].increment();
+        if (improved) {
+            this.improved[neighborhood].increment();
+        }
+    }
+
+    @Override
+    public void shaken() {
+        shakes.increment();
+    }
+
+    @Override
+    public void largeNeighborhood(boolean improved) {
+        largeNeighborhoods.increment();
+        if (improved) {
+            largeNeighborhoodImprovements.increment();
+        }
+    }
+
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Add all counters of these metrics to another one, safe to call concurrently on the same target
+     * @param target metrics to update, must have the same neighborhoods
+     */
+    public void mergeInto(VNSRunMetrics target) {
+        if (!neighborhoods.equals(target.neighborhoods)) {
+            throw new IllegalArgumentException("Cannot merge metrics of different neighborhoods");
+        }
+        for (int i = 0; i < neighborhoods.size(); i++) {
+            target.explores[i].add(explores[i].sum());
+            target.exploresWithMove[i].add(exploresWithMove[i].sum());
+            target.executed[i].add(executed[i].sum());
+            target.improved[i].add(improved[i].sum());
+            target.exploreNanos[i].add(exploreNanos[i].sum());
+            target.exploreBytes[i].add(exploreBytes[i].sum());
+            target.measuredExplores[i].add(measuredExplores[i].sum());
+            for (int b = 0; b < BUCKETS; b++) {
+                target.histogram[i][b].add(histogram[i][b].sum());
+            }
+        }
+        target.shakes.add(shakes.sum());
+        target.largeNeighborhoods.add(largeNeighborhoods.sum());
+        target.largeNeighborhoodImprovements.add(largeNeighborhoodImprovements.sum());
+    }
+
+    /**
+     * CSV header of {@link #toCsvRows(String)}
+     */
+    public static final String CSV_HEADER = "neighborhood,explores,exploresWithMove,executed,improved,acceptanceRate,improvementRate,"
+            + "meanExploreNanos,p50ExploreNanos,p99ExploreNanos,meanExploreBytes,shakes,largeNeighborhoods,largeNeighborhoodImprovements";
+
+    /**
+     * One CSV row per neighborhood. The VNS looks for the first move only, so {@code exploresWithMove} counts the
+     * explorations that found one, not the size of the neighborhood. Percentiles are upper bounds of the log2 histogram bucket.
+     * {@code meanExploreBytes} is the heap allocated per exploration, NA if the JVM cannot measure it.
+     * Shake and large neighborhood counters are repeated in every row.
+     * @param prefix columns to prepend to every row, including the trailing comma
+     * @return CSV rows, without trailing new line
+     */
+    public List<String> toCsvRows(String prefix) {
+        var rows = new ArrayList<String>(neighborhoods.size());
+        for (int i = 0; i < neighborhoods.size(); i++) {
+            long nExplores = explores[i].sum(), nExecuted = executed[i].sum();
+            rows.add(prefix + String.join(",",
+                    neighborhoods.get(i),
+                    Long.toString(nExplores),
+                    Long.toString(exploresWithMove[i].sum()),
+                    Long.toString(nExecuted),
+                    Long.toString(improved[i].sum()),
+                    ratio(nExecuted, nExplores),
+                    ratio(improved[i].sum(), nExecuted),
+                    Long.toString(nExplores == 0 ? 0 : exploreNanos[i].sum() / nExplores),
+                    Long.toString(percentile(i, 0.5)),
+                    Long.toString(percentile(i, 0.99)),
+                    meanBytes(i),
+                    Long.toString(shakes.sum()),
+                    Long.toString(largeNeighborhoods.sum()),
+                    Long.toString(largeNeighborhoodImprovements.sum())));
+        }
+        return rows;
+    }
+
+    private String meanBytes(int neighborhood) {
+        long measured = measuredExplores[neighborhood].sum();
+        return measured == 0 ? "NA" : Double.toString((double) exploreBytes[neighborhood].sum() / measured);
+    }
+
+    private static String ratio(long a, long b) {
+        return b == 0 ? "0" : Double.toString((double) a / b);
+    }
+
+    private long percentile(int neighborhood, double q) {
+        long total = explores[neighborhood].sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(q * total), seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histogram[neighborhood][b].sum();
+            if (seen >= rank) {
+                return b == 63 ? Long.MAX_VALUE : (1L << (b + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,72 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Termination criteria of {@link PSSCVNSRunner}. The search stops as soon as any of them is met.
+ * @param timeLimitMillis maximum run time, in milliseconds
+ * @param maxIterations maximum number of VNS iterations
+ * @param maxPlateau maximum number of consecutive iterations without improvement
+ * @param targetScore score to reach for each instance, by instance name. The search stops once a solution with this
+ *                    score or lower is found, 0 if there is no target
+ * @param stopAtLowerBound stop as soon as the best solution reaches the instance lower bound, as it is optimal.
+ *                         The bound is computed once per instance, see {@link PSSCInstance#getLowerBound()}
+ */
+public record VNSTermination(long timeLimitMillis, long maxIterations, int maxPlateau, ToIntFunction<String> targetScore,
+                             boolean stopAtLowerBound) {
+
+    /**
+     * Original behaviour: stop after 200 iterations without improvement
+     */
+    public static final VNSTermination DEFAULT = new VNSTermination(Long.MAX_VALUE, Long.MAX_VALUE, 200, name -> 0, false);
+
+    public VNSTermination {
+        if (timeLimitMillis < 0 || maxIterations < 0 || maxPlateau < 0) {
+            throw new IllegalArgumentException("Termination limits must be non negative");
+        }
+        if (targetScore == null) {
+            throw new IllegalArgumentException("Target score function cannot be null, use name -> 0 to disable it");
+        }
+    }
+
+    public VNSTermination withTimeLimit(long timeLimitMillis) {
+        return new VNSTermination(timeLimitMillis, maxIterations, maxPlateau, targetScore, stopAtLowerBound);
+    }
+
+    public VNSTermination withMaxIterations(long maxIterations) {
+        return new VNSTermination(timeLimitMillis, maxIterations, maxPlateau, targetScore, stopAtLowerBound);
+    }
+
+    public VNSTermination withMaxPlateau(int maxPlateau) {
+        return new VNSTermination(timeLimitMillis, maxIterations, maxPlateau, targetScore, stopAtLowerBound);
+    }
+
+    /**
+     * Use the same target score for every instance
+     * @param target score to reach
+     * @return new termination criteria
+     */
+    public VNSTermination withTargetScore(int target) {
+        return new VNSTermination(timeLimitMillis, maxIterations, maxPlateau, name -> target, stopAtLowerBound);
+    }
+
+    /**
+     * Use a different target score for each instance, for example the reference values
+     * @param targets score to reach by instance name, 0 if unknown
+     * @return new termination criteria
+     */
+    public VNSTermination withTargetScores(ToIntFunction<String> targets) {
+        return new VNSTermination(timeLimitMillis, maxIterations, maxPlateau, targets, stopAtLowerBound);
+    }
+
+    /**
+     * Stop as soon as the best solution is proved optimal by the instance lower bound
+     * @param stopAtLowerBound true to compute the lower bound and stop when it is reached
+     * @return new termination criteria
+     */
+    public VNSTermination withStopAtLowerBound(boolean stopAtLowerBound) {
+        return new VNSTermination(timeLimitMillis, maxIterations, maxPlateau, targetScore, stopAtLowerBound);
+    }
+}
@@ -0,0 +1,274 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCCore;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.neigh.AddNeighborhood;
+import es.urjc.etsii.grafo.PSSC.model.neigh.AllocationMeter;
+import es.urjc.etsii.grafo.PSSC.model.neigh.PackedNeighborhood;
+import es.urjc.etsii.grafo.PSSC.model.neigh.RemoveNeighborhood;
+import es.urjc.etsii.grafo.PSSC.model.neigh.SwapNeighborhood;
+import es.urjc.etsii.grafo.PSSC.shake.ExamplePSSCShake;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * One VNS trajectory (Drop → Swap → Add, then shake) that can be advanced step by step,
+ * so it can be run to completion by {@link PSSCVNSRunner} or in time slices by {@link TrajectoryScheduler}.
+ * Not thread safe, but different trajectories can run concurrently.
+ * Optionally, the search goes back to the best solution before shaking, as in basic VNS. The best state is kept as a
+ * checkpoint of the current solution, so it is restored by undoing the last moves instead of copying the best solution.
+ * Shaking a solution as good as the best one moves the checkpoint to it, and the journal is dropped once it is longer
+ * than the best solution, so it does not grow over long plateaus.
+ * The neighborhoods can also be restricted to a core problem that is periodically repriced, see {@link PSSCCore}.
+ */
+public class VNSTrajectory {
+
+    private static final List<PackedNeighborhood<?>> NHOODS = List.of(
+            new RemoveNeighborhood(),
+            new SwapNeighborhood(),
+            new AddNeighborhood()
+    );
+
+    private final ExamplePSSCShake shake = new ExamplePSSCShake();
+    private final RandomGenerator rnd;
+    private final FixAndOptimize largeNeighborhood;
+    private final int maxPlateau;
+    private VNSMetrics metrics = VNSMetrics.NOOP;
+    private boolean timed;
+    private boolean restoreBest;
+    private int bestCheckpoint = -1;               // state of current equal to best, -1 if unknown
+    private PSSCCore core;                         // null if every set is considered
+    private int repriceSteps;
+
+    private PSSCSolution current;
+    private PSSCSolution best;
+    private int bestScore;
+    private int plateau;
+    private int k;                                 // neighbourhood index
+    private long steps;
+
+    /**
+     * Create a trajectory
+     * @param initial feasible starting solution, owned by the trajectory from now on
+     * @param rnd random generator used to shake
+     * @param largeNeighborhood move tried when all neighborhoods fail, null to always shake
+     * @param maxPlateau steps without improvement after which the trajectory is finished
+     */
+    public VNSTrajectory(PSSCSolution initial, RandomGenerator rnd, FixAndOptimize largeNeighborhood, int maxPlateau) {
+        this.rnd = rnd;
+        this.largeNeighborhood = largeNeighborhood;
+        this.maxPlateau = maxPlateau;
+        restart(initial);
+    }
+
+    /**
+     * Continue the search from another solution, the best solution found so far is kept
+     * @param solution feasible solution, owned by the trajectory from now on
+     */
+    public void restart(PSSCSolution solution) {
+        if (core != null) {
+            solution.setCore(core);
+        }
+        this.current = solution;
+        this.bestScore = solution.getScore();
+        this.plateau = 0;
+        this.k = 0;
+        this.bestCheckpoint = -1;
+        if (best == null || bestScore < best.getScore()) {
+            best = solution.cloneSolution();
+            checkpointBest();
+        }
+    }
+
+    /**
+     * Go back to the best solution found so far before shaking, if the current solution is worse.
+     * Disabled by default.
+     * @param restoreBest true to shake the best solution, false to shake the current one
+     */
+    public void setRestoreBest(boolean restoreBest) {
+        this.restoreBest = restoreBest;
+        current.releaseCheckpoints();
+        bestCheckpoint = -1;
+    }
+
+    /**
+     * Restrict the neighborhoods and the shake to a core problem built for the current solution, and build it again
+     * for the best solution every given number of steps, so sets that became attractive can enter it.
+     * Disabled by default.
+     * @param setsPerPoint number of sets with the lowest reduced cost taken from each point
+     * @param repriceSteps steps between two repricings of the core
+     */
+    public void setCore(int setsPerPoint, int repriceSteps) {
+        if (repriceSteps < 1) {
+            throw new IllegalArgumentException("Reprice steps must be at least 1, got " + repriceSteps);
+        }
+        this.repriceSteps = repriceSteps;
+        this.core = PSSCCore.build(current, setsPerPoint);
+        current.setCore(core);
+    }
+
+    /**
+     * Report the hot path events of this trajectory. Exploration is only timed, and its allocation measured, when the
+     * metrics are enabled.
+     * @param metrics metrics to update, {@link VNSMetrics#NOOP} to disable them
+     */
+    public void setMetrics(VNSMetrics metrics) {
+        this.metrics = metrics;
+        this.timed = metrics.isEnabled();
+    }
+
+    /**
+     * Names of the neighborhoods explored by every trajectory, indexed as reported to {@link VNSMetrics}
+     * @return neighborhood names, in exploration order
+     */
+    public static List<String> neighborhoodNames() {
+        return NHOODS.stream().map(n -> n.getClass().getSimpleName()).toList();
+    }
+
+    /**
+     * @return true if the trajectory has not improved in the last maxPlateau steps
+     */
+    public boolean isFinished() {
+        return plateau >= maxPlateau;
+    }
+
+    /**
+     * Run one VNS iteration: explore the current neighborhood, or shake after a full cycle without gains
+     */
+    public void step() {
+        steps++;
+        if (core != null && steps % repriceSteps == 0) {
+            core = core.reprice(best);
+            current.setCore(core);
+        }
+        var neigh = NHOODS.get(k);
+        long move;
+        if (timed) {
+            long allocated = AllocationMeter.allocatedBytes();
+            long start = System.nanoTime();
+            move = neigh.firstPacked(current);
+            long nanos = System.nanoTime() - start;
+            long bytes = allocated < 0 ? -1 : AllocationMeter.allocatedBytes() - allocated;
+            metrics.explored(k, nanos, bytes, move != PackedNeighborhood.NONE);
+        } else {
+            move = neigh.firstPacked(current);
+        }
+
+        if (move != PackedNeighborhood.NONE) {      // first‑improvement
+            neigh.materialize(current, move).execute(current);
+
+            if (current.getScore() < bestScore) {
+                if (timed) metrics.executed(k, true);
+                improved();
+                k = 0;
+            } else {
+                if (timed) metrics.executed(k, false);
+                k = (k + 1) % NHOODS.size();
+                plateau++;
+                trimJournal();
+            }
+
+        } else {                                   // neighbourhood empty
+            k = (k + 1) % NHOODS.size();
+            if (k == 0) {                          // full cycle without gains
+                if (largeNeighborhood != null) {
+                    boolean gain = largeNeighborhood.apply(current) && current.getScore() < bestScore;
+                    if (timed) metrics.largeNeighborhood(gain);
+                    if (gain) {
+                        improved();
+                        return;
+                    }
+                }
+                if (restoreBest) {
+                    if (current.getScore() > best.getScore()) {
+                        restoreBest();
+                    } else {
+                        // As good as the best solution, go back here from now on so plateaus do not grow the journal
+                        checkpointBest();
+                    }
+                }
+                if (timed) metrics.shaken();
+                current = shake.shake(current, 1, rnd);
+                trimJournal();
+            }
+            plateau++;
+        }
+    }
+
+    /**
+     * Run steps until the trajectory finishes or the given time has elapsed
+     * @param nanos time budget, in nanoseconds
+     * @return number of steps executed
+     */
+    public long runFor(long nanos) {
+        long start = System.nanoTime();
+        long before = steps;
+        while (!isFinished() && System.nanoTime() - start < nanos) {
+            step();
+        }
+        return steps - before;
+    }
+
+    private void improved() {
+        bestScore = current.getScore();
+        plateau = 0;
+        if (current.isCovered() && bestScore < best.getScore()) {
+            best = current.cloneSolution();
+            checkpointBest();
+        }
+    }
+
+    private void checkpointBest() {
+        if (restoreBest) {
+            current.releaseCheckpoints();
+            bestCheckpoint = current.checkpoint();
+        }
+    }
+
+    /**
+     * Stop recording changes once undoing them would cost more than copying the best solution, which is what
+     * {@link #restoreBest()} would do anyway, so the undo journal never holds more entries than the best score
+     */
+    private void trimJournal() {
+        if (bestCheckpoint >= 0 && current.getJournalSize() - bestCheckpoint > best.getScore()) {
+            current.releaseCheckpoints();
+            bestCheckpoint = -1;
+        }
+    }
+
+    /**
+     * Undo the moves done since the best solution was found. When that would touch more sets than the best
+     * solution has, or the best state is not a checkpoint of the current solution, copy the best solution instead.
+     */
+    private void restoreBest() {
+        if (bestCheckpoint >= 0 && current.getJournalSize() - bestCheckpoint <= best.getScore()) {
+            current.rollback(bestCheckpoint);
+        } else {
+            current = best.cloneSolution();
+            current.setCore(core);
+            bestCheckpoint = current.checkpoint();
+        }
+    }
+
+    /**
+     * @return solution being modified by the search
+     */
+    public PSSCSolution getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return best feasible solution visited by this trajectory, must not be modified
+     */
+    public PSSCSolution getBest() {
+        return best;
+    }
+
+    /**
+     * @return number of steps executed since the trajectory was created
+     */
+    public long getSteps() {
+        return steps;
+    }
+}
@@ -6,6 +6,8 @@ import es.urjc.etsii.grafo.create.Constructive;
 import es.urjc.etsii.grafo.util.random.RandomManager;
 import es.urjc.etsii.grafo.util.collections.BitSet;
 
+import java.util.Arrays;
+
 /**
  * Greedy constructive for the Partial Set Covering Problem (PSCP).
  * <p>
@@ -18,52 +20,71 @@ import es.urjc.etsii.grafo.util.collections.BitSet;
  *         sets and drop any whose removal keeps the coverage ≥ 90 %.</li>
  * </ol>
  * <p>
- * The implementation keeps an <code>int[] coverCount</code> so coverage checks are
- * incremental.  All random choices use {@link RandomManager} for reproducibility.
+ * Gains and losses are read from the scores incrementally maintained by {@link PSSCSolution},
+ * so each greedy iteration is a linear scan over the sets without walking their points.
+ * <p>
+ * In <em>lazy</em> mode the greedy phase keeps unselected sets in a bucket queue indexed by
+ * their last known gain. As gains never increase while sets are added, only the sets in the
+ * highest non-empty bucket need to be re-checked each iteration: stale ones are moved down to
+ * the bucket of their current gain, and the set to add is drawn uniformly among the rest.
  * <p>
- * <strong>Important implementation note</strong>: The custom {@code BitSet}
+ * All random choices use {@link RandomManager} for reproducibility.
+ * <p>
+ * <strong>Important implementation note</strong>: The custom {@code BitSet}
  * provided by Mork throws an {@code IndexOutOfBoundsException} if
  * {@code nextSetBit(idx)} is called with {@code idx == capacity}.  Therefore we
  * guard every increment and stop the iteration once we reach
- * {@code nPoints‑1}/{@code nSets‑1}.
+ * {@code nSets‑1}.
  */
 public class PSSCGreedyConstructive extends Constructive<PSSCSolution, PSSCInstance> {
 
+    private final boolean lazy;
+
+    /**
+     * Greedy constructive that scans every unselected set on each iteration
+     */
+    public PSSCGreedyConstructive() {
+        this(false);
+    }
+
+    /**
+     * Greedy constructive
+     * @param lazy true to use a bucket queue instead of scanning every set on each iteration
+     */
+    public PSSCGreedyConstructive(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     @Override
     public PSSCSolution construct(PSSCSolution solution) {
-        var rnd = RandomManager.getRandom();
-        PSSCInstance instance = solution.getInstance();
+        // 1. Greedy phase – add sets until coverage goal reached
+        if (lazy) {
+            lazyGreedy(solution);
+        } else {
+            greedy(solution);
+        }
 
-        final int nPoints = instance.getnPoints();
-        final int nSets   = instance.getnSets();
-        final int minCoveredRequired = (int) Math.ceil(PSSCSolution.MIN_COVERAGE * nPoints);
+        // 2. Redundancy elimination – drop sets while feasible
+        removeRedundant(solution);
 
-        // Coverage bookkeeping ---------------------------------------------------------
-        int[] coverCount = new int[nPoints]; // how many selected sets cover each point
-        int   covered    = 0;               // number of currently covered points
+        solution.notifyUpdate(); // refresh objective & caches
+        return solution;
+    }
 
+    private void greedy(PSSCSolution solution) {
+        var rnd = RandomManager.getRandom();
+        final int nSets   = solution.getInstance().getnSets();
+        final int minCoveredRequired = solution.minCoveredRequired();
         BitSet chosen = solution.getChosenSets();
 
-        // --------------------------------------------------------------------------
-        // 1. Greedy phase – add sets until coverage goal reached
-        // --------------------------------------------------------------------------
-        while (covered < minCoveredRequired) {
+        while (solution.getCoveredCount() < minCoveredRequired) {
             int bestSet  = -1;
             int bestGain = -1;
 
             for (int s = 0; s < nSets; s++) {
                 if (chosen.contains(s)) continue;
 
-                int gain = 0;
-                BitSet covers = instance.getCoveredPoints(s);
-
-                int p = covers.nextSetBit(0);
-                while (p >= 0 && p < nPoints) {
-                    if (coverCount[p] == 0) gain++;
-                    if (p == nPoints - 1) break;          // avoid capacity fault
-                    p = covers.nextSetBit(p + 1);
-                }
-
+                int gain = solution.getAddGain(s);
                 if (gain > bestGain) {
                     bestGain = gain;
                     bestSet  = s;
@@ -72,62 +93,87 @@ public class PSSCGreedyConstructive extends Constructive<PSSCSolution, PSSCInsta
                 }
             }
 
-            // Degenerate safeguard: if no positive gain, pick first unselected set
-            if (bestSet == -1) {
-                for (int s = 0; s < nSets; s++) {
-                    if (!chosen.contains(s)) { bestSet = s; break; }
+            // Degenerate safeguard: no unselected set left
+            if (bestSet == -1) break;
+
+            solution.addSet(bestSet);
+        }
+    }
+
+    private void lazyGreedy(PSSCSolution solution) {
+        var rnd = RandomManager.getRandom();
+        PSSCInstance instance = solution.getInstance();
+        final int nSets   = instance.getnSets();
+        final int minCoveredRequired = solution.minCoveredRequired();
+
+        // Bucket b contains the sets whose last known gain is b, sets without gain are never added
+        int maxGain = 0;
+        for (int s = 0; s < nSets; s++) {
+            maxGain = Math.max(maxGain, solution.getAddGain(s));
+        }
+        int[][] buckets = new int[maxGain + 1][];
+        int[] sizes = new int[maxGain + 1];
+        for (int s = 0; s < nSets; s++) {
+            int gain = solution.getAddGain(s);
+            if (gain > 0) sizes[gain]++;
+        }
+        for (int b = 1; b <= maxGain; b++) {
+            buckets[b] = new int[Math.max(sizes[b], 4)];
+            sizes[b] = 0;
+        }
+        for (int s = 0; s < nSets; s++) {
+            int gain = solution.getAddGain(s);
+            if (gain > 0) buckets[gain][sizes[gain]++] = s;
+        }
+
+        int top = maxGain;
+        while (solution.getCoveredCount() < minCoveredRequired) {
+            // Move stale sets down until the top bucket only contains up-to-date gains
+            while (top > 0) {
+                int[] bucket = buckets[top];
+                int i = 0;
+                while (i < sizes[top]) {
+                    int s = bucket[i];
+                    int gain = solution.getAddGain(s);
+                    if (gain == top) {
+                        i++;
+                        continue;
+                    }
+                    bucket[i] = bucket[--sizes[top]];
+                    if (gain > 0) {
+                        if (sizes[gain] == buckets[gain].length) {
+                            buckets[gain] = Arrays.copyOf(buckets[gain], buckets[gain].length * 2);
+                        }
+                        buckets[gain][sizes[gain]++] = s;
+                    }
                 }
+                if (sizes[top] > 0) break;
+                top--;
             }
 
-            // Add set and update counts
+            // Degenerate safeguard: no unselected set covers any uncovered point
+            if (top == 0) break;
+
+            int idx = rnd.nextInt(sizes[top]);   // random tie‑break
+            int bestSet = buckets[top][idx];
+            buckets[top][idx] = buckets[top][--sizes[top]];
             solution.addSet(bestSet);
-            BitSet covers = instance.getCoveredPoints(bestSet);
-
-            int p = covers.nextSetBit(0);
-            while (p >= 0 && p < nPoints) {
-                if (coverCount[p] == 0) covered++;
-                coverCount[p]++;
-                if (p == nPoints - 1) break;
-                p = covers.nextSetBit(p + 1);
-            }
         }
+    }
+
+    private void removeRedundant(PSSCSolution solution) {
+        final int nSets = solution.getInstance().getnSets();
+        BitSet chosen = solution.getChosenSets();
 
-        // --------------------------------------------------------------------------
-        // 2. Redundancy elimination – drop sets while feasible
-        // --------------------------------------------------------------------------
         int s = chosen.nextSetBit(0);
         while (s >= 0 && s < nSets) {
-            BitSet covers = instance.getCoveredPoints(s);
-
-            int wouldLose = 0;
-            int p = covers.nextSetBit(0);
-            while (p >= 0 && p < nPoints) {
-                if (coverCount[p] == 1) {
-                    wouldLose++;
-                    if (covered - wouldLose < minCoveredRequired) break; // early exit
-                }
-                if (p == nPoints - 1) break;
-                p = covers.nextSetBit(p + 1);
-            }
-
-            if (covered - wouldLose >= minCoveredRequired) {
+            if (solution.canRemove(s)) {
                 // Safe to remove this set
                 solution.removeSet(s);
-
-                p = covers.nextSetBit(0);
-                while (p >= 0 && p < nPoints) {
-                    coverCount[p]--;
-                    if (coverCount[p] == 0) covered--;
-                    if (p == nPoints - 1) break;
-                    p = covers.nextSetBit(p + 1);
-                }
             }
 
             if (s == nSets - 1) break;                      // avoid capacity fault
             s = chosen.nextSetBit(s + 1);
         }
-
-        solution.notifyUpdate(); // refresh objective & caches
-        return solution;
     }
 }
@@ -0,0 +1,83 @@
+package es.urjc.etsii.grafo.PSSC.constructives.grasp;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.annotations.AutoconfigConstructor;
+import es.urjc.etsii.grafo.annotations.DoubleParam;
+import es.urjc.etsii.grafo.create.Constructive;
+import es.urjc.etsii.grafo.util.random.RandomManager;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * GRASP constructive for the Partial Set Covering Problem (PSCP).
+ * <p>
+ * Two phases, as in {@link es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive}:
+ * <ol>
+ *     <li><strong>Greedy randomized add</strong> – until the minimum coverage is reached, add a random set from the
+ *         restricted candidate list, the sets whose number of newly covered points is at least
+ *         {@code gmax - alpha * (gmax - gmin)}.</li>
+ *     <li><strong>Redundancy removal</strong> – scan the selected sets in random order and drop any whose removal keeps
+ *         the solution feasible.</li>
+ * </ol>
+ * The candidate list is maintained incrementally by {@link PSSCListManager.CandidateList}, so each construction costs
+ * about as much as adding its sets, and many diverse starting solutions can be generated for multi-start methods.
+ */
+public class PSSCGraspConstructive extends Constructive<PSSCSolution, PSSCInstance> {
+
+    private final PSSCListManager listManager = new PSSCListManager();
+    private final double alpha;
+
+    /**
+     * GRASP constructive
+     * @param alpha randomness of the candidate choice, 0 is a pure greedy, 1 picks any candidate uniformly
+     */
+    @AutoconfigConstructor
+    public PSSCGraspConstructive(@DoubleParam(min = 0, max = 1) double alpha) {
+        if (alpha < 0 || alpha > 1) {
+            throw new IllegalArgumentException("Alpha must be in [0, 1], got " + alpha);
+        }
+        this.alpha = alpha;
+    }
+
+    @Override
+    public PSSCSolution construct(PSSCSolution solution) {
+        return construct(solution, RandomManager.getRandom());
+    }
+
+    /**
+     * Construct using a given random generator, for callers that run outside the Mork managed threads
+     * @param solution solution to extend, usually empty
+     * @param rnd random generator
+     * @return the same solution, feasible
+     */
+    public PSSCSolution construct(PSSCSolution solution, RandomGenerator rnd) {
+        // 1. Greedy randomized phase – add sets until coverage goal reached
+        var candidates = listManager.newCandidateList(solution);
+        while (!candidates.isEmpty()) {
+            candidates.add(candidates.pick(alpha, rnd));
+        }
+
+        // 2. Redundancy elimination – drop sets while feasible, in random order
+        removeRedundant(solution, rnd);
+
+        solution.notifyUpdate();
+        return solution;
+    }
+
+    private void removeRedundant(PSSCSolution solution, RandomGenerator rnd) {
+        int[] chosen = new int[solution.getScore()];
+        int n = 0;
+        for (int set : solution.getChosenSets()) {
+            chosen[n++] = set;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int set = chosen[j];
+            chosen[j] = chosen[i];
+            if (solution.canRemove(set)) {
+                solution.removeSet(set);
+            }
+        }
+    }
+}
@@ -6,10 +6,20 @@ import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
 import es.urjc.etsii.grafo.create.grasp.GRASPListManager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * Candidate list manager for the GRASP constructive method.
+ * <p>
+ * Candidates are the unselected sets that cover at least one uncovered point, and their greedy value is the number of
+ * uncovered points they would cover, read from the gains maintained by {@link PSSCSolution}. The list is empty once the
+ * solution is feasible. Lists are never shared between constructions, so the manager can be used by several threads.
+ * <p>
+ * {@link #newCandidateList(PSSCSolution)} returns a {@link CandidateList} that keeps the candidates in buckets indexed
+ * by their gain, used by {@link PSSCGraspConstructive}: after adding a set, only the sets that share a newly covered
+ * point with it change bucket, and the restricted candidate list is read from the top buckets without scanning every set.
  */
 public class PSSCListManager extends GRASPListManager<PSSCListManager.PSSCGRASPMove, PSSCSolution, PSSCInstance> {
 
@@ -21,65 +31,230 @@ public class PSSCListManager extends GRASPListManager<PSSCListManager.PSSCGRASPM
     @Override
     public List<PSSCGRASPMove> buildInitialCandidateList(PSSCSolution solution) {
         var list = new ArrayList<PSSCGRASPMove>();
-
-        // TODO Generate a list with all valid movements for current solution
-        // GRASP constructive method ends when CL is empty
-
+        if (solution.isCovered()) {
+            return list;
+        }
+        int nSets = solution.getInstance().getnSets();
+        for (int set = 0; set < nSets; set++) {
+            int gain = solution.getAddGain(set);
+            if (gain > 0) {
+                list.add(new PSSCGRASPMove(solution, set, gain));
+            }
+        }
         return list;
     }
 
     /**
-     * Update candidate list after each movement. The list will be sorted by the constructor.
+     * Update candidate list after each movement, in place. Gains never increase while sets are added,
+     * so candidates are only dropped or replaced, and only those whose gain changed get a new move.
      * @param solution Current solution, move has been already applied
      * @param move     Chosen move
      * @param index index of the chosen move in the candidate list
      * @param candidateList original candidate list
-     * @return an UNSORTED candidate list, where the best candidate is on the first position and the worst in the last
+     * @return an UNSORTED candidate list, empty once the solution is feasible
      */
     @Override
     public List<PSSCGRASPMove> updateCandidateList(PSSCSolution solution, PSSCGRASPMove move, List<PSSCGRASPMove> candidateList, int index) {
-        // List can be partially updated / modified if required for performance
-        // Recalculating from scratch is OK and can be optimized later if necessary
-        // Do NOT prematurely optimize, split the code in small methods and profile first to see if this is necessary
-        return buildInitialCandidateList(solution);
+        if (solution.isCovered()) {
+            candidateList.clear();
+            return candidateList;
+        }
+        int kept = 0;
+        for (int i = 0; i < candidateList.size(); i++) {
+            var candidate = candidateList.get(i);
+            int gain = solution.getAddGain(candidate.set);
+            if (gain == 0) {
+                continue;
+            }
+            candidateList.set(kept++, gain == candidate.gain ? candidate : new PSSCGRASPMove(solution, candidate.set, gain));
+        }
+        candidateList.subList(kept, candidateList.size()).clear();
+        return candidateList;
+    }
+
+    /**
+     * Create an incremental candidate list for a solution under construction
+     * @param solution solution to extend, must only be modified through the returned list until it is feasible
+     * @return candidate list, empty if the solution is already feasible
+     */
+    public CandidateList newCandidateList(PSSCSolution solution) {
+        return new CandidateList(solution);
+    }
+
+    /**
+     * Candidates bucketed by gain. Bucket {@code g} holds the sets that would newly cover exactly {@code g} points, or
+     * point weight in weighted instances, and {@code position} locates each set inside its bucket, so moving a set
+     * between buckets takes constant time.
+     */
+    public static final class CandidateList {
+
+        private final PSSCSolution solution;
+        private final int[][] buckets;
+        private final int[] sizes;
+        private final int[] position;
+        private final int[] gain;
+        private int maxGain;
+
+        private CandidateList(PSSCSolution solution) {
+            this.solution = solution;
+            int nSets = solution.getInstance().getnSets();
+            this.gain = new int[nSets];
+            this.position = new int[nSets];
+            int top = 0;
+            for (int set = 0; set < nSets; set++) {
+                gain[set] = solution.isCovered() ? 0 : solution.getAddGain(set);
+                top = Math.max(top, gain[set]);
+            }
+            this.buckets = new int[top + 1][];
+            this.sizes = new int[top + 1];
+            for (int set = 0; set < nSets; set++) {
+                sizes[gain[set]]++;
+            }
+            for (int g = 1; g <= top; g++) {
+                buckets[g] = new int[sizes[g]];
+                sizes[g] = 0;
+            }
+            for (int set = 0; set < nSets; set++) {
+                int g = gain[set];
+                if (g > 0) {
+                    position[set] = sizes[g];
+                    buckets[g][sizes[g]++] = set;
+                }
+            }
+            this.maxGain = top;
+        }
+
+        /**
+         * @return true if there are no candidates left, either because the solution is feasible or no set covers an uncovered point
+         */
+        public boolean isEmpty() {
+            return maxGain == 0 || solution.isCovered();
+        }
+
+        /**
+         * Pick a random candidate from the restricted candidate list, the candidates whose gain is at least
+         * {@code gmax - alpha * (gmax - gmin)}
+         * @param alpha 0 for a pure greedy choice, 1 for a uniform random choice among all candidates
+         * @param rnd random generator
+         * @return set id, or -1 if the list is empty
+         */
+        public int pick(double alpha, RandomGenerator rnd) {
+            if (isEmpty()) {
+                return -1;
+            }
+            int minGain = 1;
+            while (sizes[minGain] == 0) {
+                minGain++;
+            }
+            int threshold = (int) Math.ceil(maxGain - alpha * (maxGain - minGain));
+            int count = 0;
+            for (int g = threshold; g <= maxGain; g++) {
+                count += sizes[g];
+            }
+            int r = rnd.nextInt(count);
+            for (int g = maxGain; ; g--) {
+                if (r < sizes[g]) {
+                    return buckets[g][r];
+                }
+                r -= sizes[g];
+            }
+        }
+
+        /**
+         * Add a candidate set to the solution and update the buckets of the sets whose gain decreased,
+         * i.e. the unselected sets that cover a point newly covered by the added set
+         * @param set candidate set id
+         */
+        public void add(int set) {
+            var instance = solution.getInstance();
+            int[] offsets = instance.getSetOffsets();
+            int[] points = instance.getSetPoints();
+            int[] pointOffsets = instance.getPointOffsets();
+            int[] pointSets = instance.getPointSets();
+
+            solution.addSet(set);
+            if (gain[set] == 0) {
+                return;                                // no point newly covered
+            }
+            move(set, 0);
+            for (int i = offsets[set]; i < offsets[set + 1]; i++) {
+                int point = points[i];
+                if (solution.getCoverCount(point) != 1) {
+                    continue;                          // already covered before adding the set
+                }
+                int weight = instance.pointWeight(point);
+                for (int j = pointOffsets[point]; j < pointOffsets[point + 1]; j++) {
+                    int other = pointSets[j];
+                    if (gain[other] > 0) {
+                        move(other, gain[other] - weight);
+                    }
+                }
+            }
+            while (maxGain > 0 && sizes[maxGain] == 0) {
+                maxGain--;
+            }
+        }
+
+        private void move(int set, int newGain) {
+            int g = gain[set];
+            int p = position[set];
+            int last = buckets[g][--sizes[g]];
+            buckets[g][p] = last;
+            position[last] = p;
+            gain[set] = newGain;
+            if (newGain > 0) {
+                if (sizes[newGain] == buckets[newGain].length) {
+                    buckets[newGain] = Arrays.copyOf(buckets[newGain], Math.max(4, sizes[newGain] * 2));
+                }
+                position[set] = sizes[newGain];
+                buckets[newGain][sizes[newGain]++] = set;
+            }
+        }
     }
 
+    /**
+     * Add a set to the solution. Mork ranks GRASP candidates with the objective function, so the score change of
+     * this move is its greedy value: minus the number of uncovered points it covers, lower is better.
+     */
     public static class PSSCGRASPMove extends PSSCBaseMove {
-        public PSSCGRASPMove(PSSCSolution solution) {
+
+        private final int set;
+        private final int gain;
+
+        public PSSCGRASPMove(PSSCSolution solution, int set, int gain) {
             super(solution);
+            this.set = set;
+            this.gain = gain;
         }
 
         @Override
         protected PSSCSolution _execute(PSSCSolution solution) {
-            // TODO Apply changes to solution when this method is called
-            // Return the modified solutions.
-            // It is up to the implementation to decide if the original solution is modified
-            // in place or a new one is created by cloning the original solution and then applying the changes.
-            // NOTE: Calling this method multiple times with a solution and its clones must return the same result
-            throw new UnsupportedOperationException("_execute() in PSSCListManager not implemented yet");
+            solution.addSet(set);
+            solution.notifyUpdate();
+            return solution;
         }
 
         public double getScoreChange() {
-            // TODO How much does o.f. value change if we apply this movement?
-            throw new UnsupportedOperationException("getValue() in PSSCListManager not implemented yet");
+            return -gain;
+        }
+
+        public int getSet() {
+            return set;
         }
 
         @Override
         public String toString() {
-            // TODO Use IDE to generate this method after all properties are defined
-            throw new UnsupportedOperationException("toString() in PSSC not implemented yet");
+            return "GRASPAdd{" + set + ", gain=" + gain + '}';
         }
 
         @Override
         public boolean equals(Object o) {
-            // TODO Use IDE to generate this method after all properties are defined
-            throw new UnsupportedOperationException("equals() in PSSC not implemented yet");
+            return (o instanceof PSSCGRASPMove m) && m.set == this.set && m.gain == this.gain;
         }
 
         @Override
         public int hashCode() {
-            // TODO Use IDE to generate this method after all properties are defined
-            throw new UnsupportedOperationException("hashCode() in PSSC not implemented yet");
+            return 31 * set + gain;
         }
     }
 }
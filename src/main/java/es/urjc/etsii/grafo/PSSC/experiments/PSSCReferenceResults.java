@@ -7,15 +7,18 @@ import es.urjc.etsii.grafo.experiment.reference.ReferenceResult;
 import es.urjc.etsii.grafo.experiment.reference.ReferenceResultProvider;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.OptionalInt;
 import java.util.stream.Stream;
 
 public class PSSCReferenceResults extends ReferenceResultProvider {
 
     private final Map<String, ReferenceResult> sotaResults = new HashMap<>();
+    private final Map<String, Integer> sotaScores = new HashMap<>();
 
     public PSSCReferenceResults() throws IOException {
         // For each line in the sota/results.csv file, we create a ReferenceResult object
@@ -36,10 +39,24 @@ public class PSSCReferenceResults extends ReferenceResultProvider {
                 // referenceResult.setOptimalValue(true);
 
                 sotaResults.put(parts[0], referenceResult); // Instance name is usually the first column, update if necessary
+                sotaScores.put(parts[0], Integer.parseInt(parts[1].trim()));
             });
         }
     }
 
+    /**
+     * Load the reference results, for use where checked exceptions cannot be thrown
+     * @return reference results
+     * @throws UncheckedIOException if sota/results.csv cannot be read
+     */
+    public static PSSCReferenceResults load() {
+        try {
+            return new PSSCReferenceResults();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public ReferenceResult getValueFor(String instanceName) {
         // Return reference result if exists, empty one if not.
@@ -48,6 +65,16 @@ public class PSSCReferenceResults extends ReferenceResultProvider {
         return this.sotaResults.getOrDefault(instanceName, EMPTY_REFERENCE_RESULT);
     }
 
+    /**
+     * Reference score for an instance, for example to use as target score when comparing time to target
+     * @param instanceName instance name, as in the first column of sota/results.csv
+     * @return reference number of sets, or empty if the instance has no reference value
+     */
+    public OptionalInt getScore(String instanceName) {
+        Integer score = sotaScores.get(instanceName);
+        return score == null ? OptionalInt.empty() : OptionalInt.of(score);
+    }
+
     @Override
     public String getProviderName() {
         // There can be multiple providers (i.e, multiple classes extending ReferenceResultProvider)
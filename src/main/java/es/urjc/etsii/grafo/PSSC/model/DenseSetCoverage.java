@@ -0,0 +1,53 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Bitmap of the words between the first and the last covered point, constant time membership
+ */
+final class DenseSetCoverage implements SetCoverage {
+
+    /**
+     * Word of the instance bitmap stored at {@code words[0]}
+     */
+    private final int firstWord;
+    private final long[] words;
+    private final int size;
+
+    DenseSetCoverage(int[] points, int from, int to) {
+        this.firstWord = points[from] >>> 6;
+        this.words = new long[(points[to - 1] >>> 6) - firstWord + 1];
+        this.size = to - from;
+        for (int i = from; i < to; i++) {
+            int p = points[i];
+            words[(p >>> 6) - firstWord] |= 1L << p;
+        }
+    }
+
+    @Override
+    public boolean contains(int point) {
+        int w = (point >>> 6) - firstWord;
+        return w >= 0 && w < words.length && (words[w] & (1L << point)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0) {
+                action.accept((firstWord + w) << 6 | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DenseSetCoverage{" + size + " points, " + words.length + " words}";
+    }
+}
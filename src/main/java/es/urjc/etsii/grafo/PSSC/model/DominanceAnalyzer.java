@@ -0,0 +1,153 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+
+import java.util.stream.IntStream;
+
+/**
+ * Finds sets that are empty or contained in another set, without comparing all pairs.
+ * <p>
+ * A set j can only be contained in a set i if i covers every point of j, in particular
+ * the point of j covered by the fewest sets. For each j we therefore only compare against
+ * the sets covering its rarest point, visited by decreasing cardinality so the scan stops
+ * as soon as candidates become smaller than j. A 64 bit signature of each set rejects most
+ * remaining candidates before the exact containment check. Sets are analyzed in parallel.
+ * <p>
+ * The result is exactly the one of the all-pairs check: a set is useless if it is empty or if
+ * any other set contains it. Note that this marks every copy of a duplicated set.
+ * {@link #findDominatedSets()} keeps the lowest id copy of each duplicated set instead, so removing its result
+ * does not change the optimal value.
+ */
+final class DominanceAnalyzer {
+
+    private final SetCoverage[] coverage;
+    private final int[] setOffsets;
+    private final int[] setPoints;
+    private final int[] pointOffsets;
+
+    /**
+     * For each point, the sets covering it sorted by decreasing cardinality
+     */
+    private final int[] bySize;
+
+    private final int[] size;
+    private final long[] signature;
+
+    DominanceAnalyzer(SetCoverage[] coverage, int[] setOffsets, int[] setPoints, int[] pointOffsets, int[] pointSets) {
+        this.coverage = coverage;
+        this.setOffsets = setOffsets;
+        this.setPoints = setPoints;
+        this.pointOffsets = pointOffsets;
+
+        int nSets = coverage.length;
+        this.size = new int[nSets];
+        this.signature = new long[nSets];
+        int maxSize = 0;
+        for (int s = 0; s < nSets; s++) {
+            size[s] = setOffsets[s + 1] - setOffsets[s];
+            maxSize = Math.max(maxSize, size[s]);
+            long sig = 0;
+            for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                sig |= 1L << hash(setPoints[i]);
+            }
+            signature[s] = sig;
+        }
+
+        // Counting sort of sets by decreasing cardinality, then distribute them by point
+        int[] bucketStart = new int[maxSize + 2];
+        for (int s = 0; s < nSets; s++) {
+            bucketStart[maxSize - size[s] + 1]++;
+        }
+        for (int b = 1; b < bucketStart.length; b++) {
+            bucketStart[b] += bucketStart[b - 1];
+        }
+        int[] order = new int[nSets];
+        for (int s = 0; s < nSets; s++) {
+            order[bucketStart[maxSize - size[s]]++] = s;
+        }
+        this.bySize = new int[pointSets.length];
+        int[] next = pointOffsets.clone();
+        for (int s : order) {
+            for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                bySize[next[setPoints[i]]++] = s;
+            }
+        }
+    }
+
+    /**
+     * Compute which sets are empty or contained in any other set
+     * @return useless sets
+     */
+    BitSet findUselessSets() {
+        return find(false);
+    }
+
+    /**
+     * Compute which sets are empty or contained in a bigger set or in a copy of itself with a lower id.
+     * Containment is transitive and the order by size and id is total, so every removed set is contained in a kept one.
+     * @return sets that can be safely removed
+     */
+    BitSet findDominatedSets() {
+        return find(true);
+    }
+
+    private BitSet find(boolean keepOneCopy) {
+        int nSets = coverage.length;
+        boolean[] useless = new boolean[nSets];
+        IntStream.range(0, nSets).parallel().forEach(j -> useless[j] = isUseless(j, keepOneCopy));
+
+        var result = new BitSet(nSets);
+        for (int j = 0; j < nSets; j++) {
+            if (useless[j]) {
+                result.add(j);
+            }
+        }
+        return result;
+    }
+
+    private boolean isUseless(int j, boolean keepOneCopy) {
+        if (size[j] == 0) {
+            return true;
+        }
+
+        int rarest = setPoints[setOffsets[j]];
+        for (int i = setOffsets[j] + 1; i < setOffsets[j + 1]; i++) {
+            int p = setPoints[i];
+            if (degree(p) < degree(rarest)) {
+                rarest = p;
+            }
+        }
+
+        for (int i = pointOffsets[rarest]; i < pointOffsets[rarest + 1]; i++) {
+            int candidate = bySize[i];
+            if (size[candidate] < size[j]) {
+                break; // remaining candidates are even smaller
+            }
+            if (candidate == j || keepOneCopy && size[candidate] == size[j] && candidate > j) {
+                continue;
+            }
+            if ((signature[j] & ~signature[candidate]) == 0 && contains(candidate, j)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(int superset, int subset) {
+        var superCoverage = coverage[superset];
+        for (int i = setOffsets[subset]; i < setOffsets[subset + 1]; i++) {
+            if (!superCoverage.contains(setPoints[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int degree(int point) {
+        return pointOffsets[point + 1] - pointOffsets[point];
+    }
+
+    private static int hash(int point) {
+        return (int) ((point * 0x9E3779B97F4A7C15L) >>> 58);
+    }
+}
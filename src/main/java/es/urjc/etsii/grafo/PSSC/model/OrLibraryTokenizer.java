@@ -0,0 +1,123 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming tokenizer for the whitespace separated integers of OR-Library files.
+ * Reads the source in large chunks into a reusable buffer and parses digits in place,
+ * so no object is allocated per token, unlike {@link java.util.Scanner}.
+ */
+final class OrLibraryTokenizer {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final String sourceName;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+
+    OrLibraryTokenizer(Reader reader, String sourceName) {
+        this.reader = reader;
+        this.sourceName = sourceName;
+    }
+
+    /**
+     * Skip whitespace and check if there is another integer in the input
+     * @return true if the next token starts like an integer, false if the input is exhausted or has another token type
+     * @throws IOException if reading fails
+     */
+    boolean hasNextInt() throws IOException {
+        if (!skipWhitespace()) {
+            return false;
+        }
+        char c = buffer[position];
+        return isDigit(c) || c == '-' || c == '+';
+    }
+
+    /**
+     * Parse the next integer
+     * @return parsed value
+     * @throws EOFException if the input ends before the next integer
+     * @throws IOException if reading fails or the next token is not an integer
+     */
+    int nextInt() throws IOException {
+        if (!skipWhitespace()) {
+            throw new EOFException("Unexpected EOF in instance " + sourceName);
+        }
+
+        boolean negative = false;
+        char c = buffer[position];
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            position++;
+            if (!fill()) {
+                throw new EOFException("Unexpected EOF in instance " + sourceName);
+            }
+        }
+
+        long value = 0;
+        int digits = 0;
+        while (fill()) {
+            c = buffer[position];
+            if (!isDigit(c)) {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new IOException("Integer overflow in instance " + sourceName);
+            }
+            digits++;
+            position++;
+        }
+        if (digits == 0 || (position < limit && !isWhitespace(buffer[position]))) {
+            throw new IOException("Unexpected token in instance " + sourceName + ", expected an integer");
+        }
+
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Integer overflow in instance " + sourceName);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Advance until the next non whitespace char
+     * @return false if the input has been exhausted
+     */
+    private boolean skipWhitespace() throws IOException {
+        while (fill()) {
+            if (!isWhitespace(buffer[position])) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    /**
+     * Ensure there is at least one char available in the buffer
+     * @return false if the input has been exhausted
+     */
+    private boolean fill() throws IOException {
+        while (position >= limit) {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+    }
+}
@@ -0,0 +1,211 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+/**
+ * Core problem: the small subset of sets the local search may add to a solution, see {@link PSSCSolution#setCore(PSSCCore)}.
+ * <p>
+ * Sets are priced with their Lagrangian reduced cost {@code 1 - sum_{p in s} u_p}, see {@link PSSCLowerBound}.
+ * For every point, the {@code setsPerPoint} sets covering it with the lowest reduced cost are part of the core,
+ * together with the sets of the solution the core is built for. Most sets of large instances never appear in good
+ * solutions, so the neighborhoods only scan a fraction of them.
+ * <p>
+ * {@link #reprice(PSSCSolution)} optimizes the multipliers on the core sets only, and then prices every set again,
+ * so excluded sets that became attractive enter the new core. Cores are immutable and can be shared between solutions.
+ */
+public final class PSSCCore {
+
+    /**
+     * Sets taken from each point when no other value is given, as in the usual core heuristics for set covering
+     */
+    public static final int DEFAULT_SETS_PER_POINT = 5;
+
+    /**
+     * Subgradient iterations when the core is first built, on every set
+     */
+    private static final int BUILD_ITERATIONS = 200;
+
+    /**
+     * Subgradient iterations when the core is repriced, on the core sets only
+     */
+    private static final int REPRICE_ITERATIONS = 50;
+
+    private final PSSCInstance instance;
+    private final int setsPerPoint;
+    private final double[] multipliers;
+
+    /**
+     * True for the sets in the core
+     */
+    private final boolean[] contains;
+
+    /**
+     * Core sets, sorted ascending
+     */
+    private final int[] sets;
+
+    /**
+     * Point → core sets index, in CSR format as {@link PSSCInstance#getPointOffsets()}, each row sorted ascending
+     */
+    private final int[] pointOffsets;
+    private final int[] pointSets;
+
+    private PSSCCore(PSSCInstance instance, int setsPerPoint, double[] multipliers, boolean[] contains) {
+        this.instance = instance;
+        this.setsPerPoint = setsPerPoint;
+        this.multipliers = multipliers;
+        this.contains = contains;
+
+        int size = 0;
+        for (boolean c : contains) {
+            if (c) size++;
+        }
+        this.sets = new int[size];
+        for (int s = 0, i = 0; s < contains.length; s++) {
+            if (contains[s]) sets[i++] = s;
+        }
+
+        int[] allOffsets = instance.getPointOffsets(), allSets = instance.getPointSets();
+        int nPoints = instance.getnPoints();
+        this.pointOffsets = new int[nPoints + 1];
+        for (int p = 0; p < nPoints; p++) {
+            int degree = 0;
+            for (int j = allOffsets[p]; j < allOffsets[p + 1]; j++) {
+                if (contains[allSets[j]]) degree++;
+            }
+            pointOffsets[p + 1] = pointOffsets[p] + degree;
+        }
+        this.pointSets = new int[pointOffsets[nPoints]];
+        for (int p = 0, idx = 0; p < nPoints; p++) {
+            for (int j = allOffsets[p]; j < allOffsets[p + 1]; j++) {
+                if (contains[allSets[j]]) pointSets[idx++] = allSets[j];
+            }
+        }
+    }
+
+    /**
+     * Build the core for a solution, optimizing the multipliers on every set
+     * @param solution feasible solution, its sets are always part of the core. Not modified
+     * @param setsPerPoint number of sets with the lowest reduced cost taken from each point
+     * @return new core
+     */
+    public static PSSCCore build(PSSCSolution solution, int setsPerPoint) {
+        if (setsPerPoint < 1) {
+            throw new IllegalArgumentException("Sets per point must be at least 1, got " + setsPerPoint);
+        }
+        var instance = solution.getInstance();
+        double[] u = PSSCLowerBound.initialMultipliers(instance);
+        PSSCLowerBound.optimize(instance, u, null, solution.getScore(), BUILD_ITERATIONS);
+        return select(solution, setsPerPoint, u);
+    }
+
+    /**
+     * Build a new core for a solution: the multipliers are optimized on the current core sets, starting from the
+     * current ones, and then every set of the instance is priced again
+     * @param solution feasible solution of the same instance, usually the best one found. Not modified
+     * @return new core
+     */
+    public PSSCCore reprice(PSSCSolution solution) {
+        if (solution.getInstance() != instance) {
+            throw new IllegalArgumentException("Solution does not belong to instance " + instance.getId());
+        }
+        double[] u = multipliers.clone();
+        PSSCLowerBound.optimize(instance, u, contains, solution.getScore(), REPRICE_ITERATIONS);
+        return select(solution, setsPerPoint, u);
+    }
+
+    /**
+     * Take the cheapest sets of each point, and the chosen sets of the solution
+     */
+    private static PSSCCore select(PSSCSolution solution, int setsPerPoint, double[] u) {
+        var instance = solution.getInstance();
+        int[] pointOffsets = instance.getPointOffsets(), pointSets = instance.getPointSets();
+        double[] costs = new double[instance.getnSets()];
+        PSSCLowerBound.reducedCosts(instance, u, costs);
+
+        boolean[] contains = new boolean[instance.getnSets()];
+        for (int set : solution.getChosenSets()) {
+            contains[set] = true;
+        }
+        // Partial insertion sort of each row, rows are short compared to the number of sets
+        int[] cheapest = new int[setsPerPoint];
+        for (int p = 0; p < instance.getnPoints(); p++) {
+            int n = 0;
+            for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                int s = pointSets[j];
+                if (n == setsPerPoint && costs[s] >= costs[cheapest[n - 1]]) {
+                    continue;
+                }
+                int i = n < setsPerPoint ? n++ : n - 1;
+                while (i > 0 && costs[cheapest[i - 1]] > costs[s]) {
+                    cheapest[i] = cheapest[i - 1];
+                    i--;
+                }
+                cheapest[i] = s;
+            }
+            for (int i = 0; i < n; i++) {
+                contains[cheapest[i]] = true;
+            }
+        }
+        return new PSSCCore(instance, setsPerPoint, u, contains);
+    }
+
+    /**
+     * @return instance this core belongs to
+     */
+    public PSSCInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Check if a set is part of the core, in constant time
+     * @param set set id
+     * @return true if the local search may add the set
+     */
+    public boolean contains(int set) {
+        return contains[set];
+    }
+
+    /**
+     * @return number of sets in the core
+     */
+    public int size() {
+        return sets.length;
+    }
+
+    /**
+     * Core set at the given position, core sets are sorted by id
+     * @param index position, from 0 to {@link #size()} - 1
+     * @return set id
+     */
+    public int getSet(int index) {
+        return sets[index];
+    }
+
+    /**
+     * CSR offsets for the point → core sets index, as {@link PSSCInstance#getPointOffsets()}
+     * @return offsets, must not be modified
+     */
+    public int[] getPointOffsets() {
+        return pointOffsets;
+    }
+
+    /**
+     * CSR indices for the point → core sets index, as {@link PSSCInstance#getPointSets()}
+     * @return core sets covering each point, must not be modified
+     */
+    public int[] getPointSets() {
+        return pointSets;
+    }
+
+    /**
+     * Lagrangian multipliers the sets were priced with when the core was selected
+     * @return multiplier of each point, must not be modified
+     */
+    double[] getMultipliers() {
+        return multipliers;
+    }
+
+    @Override
+    public String toString() {
+        return "PSSCCore{" + sets.length + "/" + instance.getnSets() + " sets}";
+    }
+}
@@ -5,6 +5,11 @@ import es.urjc.etsii.grafo.util.collections.BitSet;
 
 public class PSSCInstance extends Instance {
 
+    /**
+     * Largest {@link #getPackedCoverage()} that may be built, in 64 bit words (256 MB)
+     */
+    public static final long MAX_PACKED_WORDS = 1L << 25;
+
     /**
      * Number of sets in the instance
      */
@@ -16,9 +21,9 @@ public class PSSCInstance extends Instance {
     private final int nPoints;
 
     /**
-     * For each set, which points does it cover
+     * For each set, which points does it cover, see {@link SetCoverage} for the representations used
      */
-    private final BitSet[] coverage;
+    private final SetCoverage[] coverage;
 
     /**
      * Which sets should not be added to the solution
@@ -27,30 +32,205 @@ public class PSSCInstance extends Instance {
      */
     private final BitSet uselessSets;
 
+    /**
+     * CSR offsets for the set → points adjacency: the points covered by set s are
+     * {@code setPoints[setOffsets[s]]} to {@code setPoints[setOffsets[s + 1] - 1]}, sorted ascending.
+     */
+    private final int[] setOffsets;
+
+    /**
+     * CSR indices for the set → points adjacency, see {@link #setOffsets}
+     */
+    private final int[] setPoints;
+
+    /**
+     * CSR offsets for the point → sets inverted index: the sets covering point p are
+     * {@code pointSets[pointOffsets[p]]} to {@code pointSets[pointOffsets[p + 1] - 1]}, sorted ascending.
+     */
+    private final int[] pointOffsets;
+
+    /**
+     * CSR indices for the point → sets inverted index, see {@link #pointOffsets}
+     */
+    private final int[] pointSets;
+
+    /**
+     * Time spent detecting useless sets, in milliseconds
+     */
+    private final long dominanceMillis;
+
+    /**
+     * Minimum number of points that must be covered by a feasible solution.
+     * Defaults to {@link PSSCSolution#MIN_COVERAGE} of the points, but sub-instances may require a different amount.
+     */
+    private final int minCoveredRequired;
+
+    /**
+     * Number of original points represented by each point, null if every point counts once.
+     * Only reduced instances have weights, see {@link PSSCReduction}.
+     */
+    private final int[] pointWeights;
+
+    /**
+     * Total weight of the points of each set, null if every point counts once
+     */
+    private final int[] setWeights;
+
+    /**
+     * Reduction of this instance, computed on first use
+     */
+    private volatile PSSCReduction reduction;
+
+    /**
+     * Lower bound on the score of any feasible solution, computed on first use, -1 until then
+     */
+    private volatile int lowerBound = -1;
+
+    /**
+     * Coverage of every set as a packed bitmap, computed on first use, see {@link #getPackedCoverage()}
+     */
+    private volatile long[] packedCoverage;
 
     public PSSCInstance(int nSets, int nPoints, BitSet[] coverage, String name){
+        this(name, nSets, nPoints, setOffsets(coverage), setPoints(coverage));
+    }
+
+    /**
+     * Build an instance from its set → points adjacency in CSR format, as in {@link #getSetOffsets()}.
+     * The point → sets index and the useless sets are computed here.
+     */
+    PSSCInstance(String name, int nSets, int nPoints, int[] setOffsets, int[] setPoints) {
         super(name);
         this.nSets = nSets;
         this.nPoints = nPoints;
-        this.coverage = coverage;
-        this.uselessSets = new BitSet(nSets);
-
-        for (int i = 0; i < nSets; i++) {
-            var set = coverage[i];
-            if (set.isEmpty()) {
-                uselessSets.add(i);
-            } else {
-                for (int j = 0; j < nSets; j++) {
-                    if(i != j && set.containsAll(coverage[j])) {
-                        uselessSets.add(j);
-                    }
+        this.setOffsets = setOffsets;
+        this.setPoints = setPoints;
+
+        // Point → sets CSR, filled in set order so each row is sorted ascending
+        this.pointOffsets = new int[nPoints + 1];
+        for (int p : setPoints) {
+            pointOffsets[p + 1]++;
+        }
+        for (int p = 0; p < nPoints; p++) {
+            pointOffsets[p + 1] += pointOffsets[p];
+        }
+        this.pointSets = new int[setPoints.length];
+        int[] next = pointOffsets.clone();
+        for (int s = 0; s < nSets; s++) {
+            for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                pointSets[next[setPoints[i]]++] = s;
+            }
+        }
+        this.coverage = buildCoverage(setOffsets, setPoints);
+
+        long start = System.nanoTime();
+        this.uselessSets = new DominanceAnalyzer(coverage, setOffsets, setPoints, pointOffsets, pointSets).findUselessSets();
+        this.dominanceMillis = (System.nanoTime() - start) / 1_000_000;
+        this.minCoveredRequired = defaultMinCoveredRequired(nPoints);
+        this.pointWeights = null;
+        this.setWeights = null;
+
+        setProperties();
+    }
+
+    /**
+     * Rebuild an instance whose adjacency and preprocessing results have already been computed,
+     * for example when loaded from the binary instance cache.
+     */
+    PSSCInstance(String name, int nSets, int nPoints, int[] setOffsets, int[] setPoints,
+                 int[] pointOffsets, int[] pointSets, BitSet uselessSets, long dominanceMillis) {
+        this(name, nSets, nPoints, setOffsets, setPoints, pointOffsets, pointSets, uselessSets, dominanceMillis,
+                defaultMinCoveredRequired(nPoints));
+    }
+
+    /**
+     * Rebuild an instance from its adjacency with a custom coverage target, used by sub-instances.
+     */
+    PSSCInstance(String name, int nSets, int nPoints, int[] setOffsets, int[] setPoints,
+                 int[] pointOffsets, int[] pointSets, BitSet uselessSets, long dominanceMillis, int minCoveredRequired) {
+        this(name, nSets, nPoints, setOffsets, setPoints, pointOffsets, pointSets, uselessSets, dominanceMillis,
+                minCoveredRequired, null);
+    }
+
+    /**
+     * Rebuild an instance from its adjacency with a custom coverage target and point weights, used by reduced instances.
+     * The coverage target is expressed in total point weight.
+     */
+    PSSCInstance(String name, int nSets, int nPoints, int[] setOffsets, int[] setPoints, int[] pointOffsets,
+                 int[] pointSets, BitSet uselessSets, long dominanceMillis, int minCoveredRequired, int[] pointWeights) {
+        super(name);
+        this.nSets = nSets;
+        this.nPoints = nPoints;
+        this.setOffsets = setOffsets;
+        this.setPoints = setPoints;
+        this.pointOffsets = pointOffsets;
+        this.pointSets = pointSets;
+        this.uselessSets = uselessSets;
+        this.dominanceMillis = dominanceMillis;
+        this.minCoveredRequired = minCoveredRequired;
+        this.pointWeights = pointWeights;
+        if (pointWeights == null) {
+            this.setWeights = null;
+        } else {
+            this.setWeights = new int[nSets];
+            for (int s = 0; s < nSets; s++) {
+                for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                    setWeights[s] += pointWeights[setPoints[i]];
                 }
             }
         }
 
+        this.coverage = buildCoverage(setOffsets, setPoints);
+
+        setProperties();
+    }
+
+    private static int[] setOffsets(BitSet[] coverage) {
+        int[] offsets = new int[coverage.length + 1];
+        for (int s = 0; s < coverage.length; s++) {
+            offsets[s + 1] = offsets[s] + coverage[s].size();
+        }
+        return offsets;
+    }
+
+    private static int[] setPoints(BitSet[] coverage) {
+        int nnz = 0;
+        for (var points : coverage) {
+            nnz += points.size();
+        }
+        int[] result = new int[nnz];
+        int idx = 0;
+        for (var points : coverage) {
+            for (int p : points) {
+                result[idx++] = p;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Coverage of every set, with the representation picked by {@link SetCoverage#of(int[], int, int)}
+     * @param setOffsets CSR offsets of the set → points adjacency
+     * @param setPoints CSR indices of the set → points adjacency, shared by sparse sets
+     * @return coverage of each set
+     */
+    static SetCoverage[] buildCoverage(int[] setOffsets, int[] setPoints) {
+        var coverage = new SetCoverage[setOffsets.length - 1];
+        for (int s = 0; s < coverage.length; s++) {
+            coverage[s] = SetCoverage.of(setPoints, setOffsets[s], setOffsets[s + 1]);
+        }
+        return coverage;
+    }
+
+    private static int defaultMinCoveredRequired(int nPoints) {
+        return (int) Math.ceil(nPoints * PSSCSolution.MIN_COVERAGE);
+    }
+
+    private void setProperties() {
         setProperty("nSets", nSets);
         setProperty("nPoints", nPoints);
         setProperty("nUselessSets", uselessSets.size());
+        setProperty("dominanceMillis", dominanceMillis);
     }
 
 
@@ -70,7 +250,7 @@ public class PSSCInstance extends Instance {
      * Returns the set of points covered by each sets
      * @return set of points covered by each sets
      */
-    public BitSet[] getCoverage() {
+    public SetCoverage[] getCoverage() {
         return coverage;
     }
 
@@ -95,10 +275,66 @@ public class PSSCInstance extends Instance {
      * @param set set id, 0 indexed.
      * @return set of points covered by the set
      */
-    public BitSet getCoveredPoints(int set) {
+    public SetCoverage getCoveredPoints(int set) {
         return coverage[set];
     }
 
+    /**
+     * Returns the number of points covered by a set
+     * @param set set id, 0 indexed.
+     * @return number of points covered by the set
+     */
+    public int setDegree(int set) {
+        return setOffsets[set + 1] - setOffsets[set];
+    }
+
+    /**
+     * Returns the number of sets that cover a point
+     * @param point point id, 0 indexed.
+     * @return number of sets covering the point
+     */
+    public int pointDegree(int point) {
+        return pointOffsets[point + 1] - pointOffsets[point];
+    }
+
+    /**
+     * CSR offsets of the set → points adjacency. Points of set s are stored in
+     * {@link #getSetPoints()} between {@code offsets[s]} (inclusive) and {@code offsets[s + 1]} (exclusive).
+     * The returned array is shared, do not modify it.
+     * @return array of nSets + 1 offsets
+     */
+    public int[] getSetOffsets() {
+        return setOffsets;
+    }
+
+    /**
+     * CSR indices of the set → points adjacency, each set row is sorted ascending.
+     * The returned array is shared, do not modify it.
+     * @return covered points of all sets, concatenated
+     */
+    public int[] getSetPoints() {
+        return setPoints;
+    }
+
+    /**
+     * CSR offsets of the point → sets inverted index. Sets covering point p are stored in
+     * {@link #getPointSets()} between {@code offsets[p]} (inclusive) and {@code offsets[p + 1]} (exclusive).
+     * The returned array is shared, do not modify it.
+     * @return array of nPoints + 1 offsets
+     */
+    public int[] getPointOffsets() {
+        return pointOffsets;
+    }
+
+    /**
+     * CSR indices of the point → sets inverted index, each point row is sorted ascending.
+     * The returned array is shared, do not modify it.
+     * @return covering sets of all points, concatenated
+     */
+    public int[] getPointSets() {
+        return pointSets;
+    }
+
     /**
      * Returns a collection of sets that should not be added to the solution,
      * as there will always be better options.
@@ -107,4 +343,145 @@ public class PSSCInstance extends Instance {
     public BitSet getUselessSets() {
         return uselessSets;
     }
+
+    /**
+     * Minimum number of points that must be covered by a feasible solution
+     * @return number of points
+     */
+    public int getMinCoveredRequired() {
+        return minCoveredRequired;
+    }
+
+    /**
+     * Number of original points represented by a point, 1 unless the instance has been reduced
+     * @param point point id, 0 indexed.
+     * @return point weight
+     */
+    public int pointWeight(int point) {
+        return pointWeights == null ? 1 : pointWeights[point];
+    }
+
+    /**
+     * Weight of every point, see {@link #pointWeight(int)}.
+     * The returned array is shared, do not modify it.
+     * @return point weights, or null if every point has weight 1
+     */
+    public int[] getPointWeights() {
+        return pointWeights;
+    }
+
+    /**
+     * Total weight of the points covered by a set, its degree unless the instance has been reduced
+     * @param set set id, 0 indexed.
+     * @return set weight
+     */
+    public int setWeight(int set) {
+        return setWeights == null ? setDegree(set) : setWeights[set];
+    }
+
+    /**
+     * Check if {@link #getPackedCoverage()} fits in {@link #MAX_PACKED_WORDS}
+     * @return true if the packed coverage can be built
+     */
+    public boolean canPackCoverage() {
+        return (long) nSets * getWordsPerSet() <= MAX_PACKED_WORDS;
+    }
+
+    /**
+     * Number of 64 bit words of each set in {@link #getPackedCoverage()}
+     * @return words per set
+     */
+    public int getWordsPerSet() {
+        return (nPoints + 63) >>> 6;
+    }
+
+    /**
+     * Coverage of every set as a packed bitmap, built the first time it is requested: point p of set s is bit
+     * {@code p % 64} of word {@code s * getWordsPerSet() + p / 64}. Intersections with other bitmaps can be counted
+     * with {@link Popcount}. It takes {@code nSets * nPoints / 8} bytes, so prefer the CSR arrays on large sparse instances.
+     * The returned array is shared, do not modify it.
+     * @return packed coverage
+     * @throws IllegalStateException if the bitmap would be larger than {@link #MAX_PACKED_WORDS}, see {@link #canPackCoverage()}
+     */
+    public long[] getPackedCoverage() {
+        var result = packedCoverage;
+        if (result == null) {
+            if (!canPackCoverage()) {
+                throw new IllegalStateException("Packed coverage of instance " + getId() + " would take "
+                        + (long) nSets * getWordsPerSet() + " words, limit is " + MAX_PACKED_WORDS);
+            }
+            synchronized (this) {
+                result = packedCoverage;
+                if (result == null) {
+                    int words = getWordsPerSet();
+                    result = new long[nSets * words];
+                    for (int s = 0; s < nSets; s++) {
+                        for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                            int p = setPoints[i];
+                            result[s * words + (p >>> 6)] |= 1L << p;
+                        }
+                    }
+                    packedCoverage = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reduced version of this instance, computed the first time it is requested.
+     * Reduction statistics are stored as instance properties.
+     * @return reduction of this instance
+     */
+    public PSSCReduction getReduction() {
+        var result = reduction;
+        if (result == null) {
+            synchronized (this) {
+                result = reduction;
+                if (result == null) {
+                    result = PSSCReduction.reduce(this);
+                    result.getStats().forEach(this::setProperty);
+                    reduction = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lagrangian lower bound on the score of any feasible solution, see {@link PSSCLowerBound}, computed the first
+     * time it is requested. The bound and the time spent computing it are stored as instance properties.
+     * @return lower bound
+     */
+    public int getLowerBound() {
+        int result = lowerBound;
+        if (result < 0) {
+            synchronized (this) {
+                result = lowerBound;
+                if (result < 0) {
+                    long start = System.nanoTime();
+                    result = PSSCLowerBound.compute(this);
+                    setProperty("lowerBound", result);
+                    setProperty("lowerBoundMillis", (System.nanoTime() - start) / 1_000_000);
+                    lowerBound = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true if {@link #getLowerBound()} has already been computed, so reading it is free
+     */
+    public boolean hasLowerBound() {
+        return lowerBound >= 0;
+    }
+
+    /**
+     * Time spent detecting useless sets when the instance was first built
+     * @return time in milliseconds
+     */
+    public long getDominanceMillis() {
+        return dominanceMillis;
+    }
 }
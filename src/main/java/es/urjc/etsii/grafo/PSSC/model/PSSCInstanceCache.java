@@ -0,0 +1,202 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Binary cache of parsed and preprocessed instances.
+ * <p>
+ * Each cached file is keyed by the source instance name and the SHA-256 hash of its contents.
+ * Loading a cached file skips parsing and dominance analysis, the arrays are read into the heap
+ * as the model works on plain int arrays, so every process keeps its own copy of the instance.
+ * <p>
+ * Layout, little endian:
+ * <pre>
+ *   int    magic ('PSSC'), int version
+ *   int    nSets, int nPoints, int nonZeros, long dominanceMillis
+ *   byte[32] SHA-256 of the source instance
+ *   int[nSets + 1]   set → points CSR offsets
+ *   int[nonZeros]    set → points CSR indices
+ *   int[nPoints + 1] point → sets CSR offsets
+ *   int[nonZeros]    point → sets CSR indices
+ *   long[(nSets + 63) / 64] useless sets bitmap
+ * </pre>
+ * Any file that does not match the expected header, hash or length is ignored and rewritten.
+ */
+final class PSSCInstanceCache {
+
+    private static final int MAGIC = 0x50535343;
+    private static final int VERSION = 1;
+    private static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = 4 * 5 + 8 + HASH_BYTES;
+
+    private final Path folder;
+
+    PSSCInstanceCache(Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Hash the contents of a source instance
+     * @param content chars of the source instance
+     * @param length number of valid chars in content
+     * @return SHA-256 digest
+     */
+    static byte[] hash(char[] content, int length) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(content, 0, length)));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Path of the cached file for a given source instance
+     * @param name source instance name
+     * @param hash source instance hash
+     * @return path inside the cache folder
+     */
+    Path pathFor(String name, byte[] hash) {
+        var fileName = Path.of(name).getFileName().toString();
+        return folder.resolve(fileName + "." + HexFormat.of().formatHex(hash, 0, 8) + ".bin");
+    }
+
+    /**
+     * Load a cached instance
+     * @param name source instance name
+     * @param hash source instance hash
+     * @return cached instance, or null if there is no valid cached file for this name and hash
+     * @throws IOException if the cached file exists but cannot be read
+     */
+    PSSCInstance read(String name, byte[] hash) throws IOException {
+        var path = pathFor(name, hash);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            var buffer = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null;                       // truncated while reading
+                }
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            int nSets = buffer.getInt();
+            int nPoints = buffer.getInt();
+            int nonZeros = buffer.getInt();
+            long dominanceMillis = buffer.getLong();
+            byte[] storedHash = new byte[HASH_BYTES];
+            buffer.get(storedHash);
+            if (!Arrays.equals(storedHash, hash) || nSets < 0 || nPoints < 0 || nonZeros < 0
+                    || fileSize != expectedSize(nSets, nPoints, nonZeros)) {
+                return null;
+            }
+
+            int[] setOffsets = readInts(buffer, nSets + 1);
+            int[] setPoints = readInts(buffer, nonZeros);
+            int[] pointOffsets = readInts(buffer, nPoints + 1);
+            int[] pointSets = readInts(buffer, nonZeros);
+
+            var uselessSets = new BitSet(nSets);
+            var words = buffer.asLongBuffer();
+            for (int w = 0; w < words(nSets); w++) {
+                long word = words.get(w);
+                while (word != 0) {
+                    uselessSets.add(w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+
+            return new PSSCInstance(name, nSets, nPoints, setOffsets, setPoints, pointOffsets, pointSets, uselessSets, dominanceMillis);
+        }
+    }
+
+    /**
+     * Store an instance in the cache. The file is written to a temporary location and atomically moved,
+     * so concurrent readers never observe a partially written file.
+     * @param name source instance name
+     * @param hash source instance hash
+     * @param instance instance to store
+     * @throws IOException if the file cannot be written
+     */
+    void write(String name, byte[] hash, PSSCInstance instance) throws IOException {
+        int nSets = instance.getnSets();
+        int nPoints = instance.getnPoints();
+        int nonZeros = instance.getSetPoints().length;
+
+        var buffer = ByteBuffer.allocate(Math.toIntExact(expectedSize(nSets, nPoints, nonZeros))).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putInt(nSets).putInt(nPoints).putInt(nonZeros).putLong(instance.getDominanceMillis());
+        buffer.put(hash, 0, HASH_BYTES);
+        writeInts(buffer, instance.getSetOffsets());
+        writeInts(buffer, instance.getSetPoints());
+        writeInts(buffer, instance.getPointOffsets());
+        writeInts(buffer, instance.getPointSets());
+
+        long[] words = new long[words(nSets)];
+        for (int set : instance.getUselessSets()) {
+            words[set >>> 6] |= 1L << set;
+        }
+        buffer.asLongBuffer().put(words);
+        buffer.position(buffer.limit());
+        buffer.flip();
+
+        Files.createDirectories(folder);
+        var target = pathFor(name, hash);
+        var tmp = Files.createTempFile(folder, target.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static long expectedSize(int nSets, int nPoints, int nonZeros) {
+        return HEADER_BYTES + 4L * (nSets + 1) + 4L * nonZeros + 4L * (nPoints + 1) + 4L * nonZeros + 8L * words(nSets);
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int length) {
+        int[] data = new int[length];
+        buffer.asIntBuffer().get(data);
+        buffer.position(buffer.position() + 4 * length);
+        return data;
+    }
+
+    private static void writeInts(ByteBuffer buffer, int[] data) {
+        buffer.asIntBuffer().put(data);
+        buffer.position(buffer.position() + 4 * data.length);
+    }
+}
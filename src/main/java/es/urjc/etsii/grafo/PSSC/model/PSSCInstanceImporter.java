@@ -1,12 +1,17 @@
 package es.urjc.etsii.grafo.PSSC.model;
 
 import es.urjc.etsii.grafo.io.InstanceImporter;
-import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
+import java.io.CharArrayReader;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 /**
  * Spring‑boot bean that loads OR‑Library SCP / PSCP instances.
@@ -18,45 +23,145 @@ import java.util.Scanner;
  *       k_p             # sets covering point p
  *       s1 … s_kp       # 1‑based column indices (may wrap lines)
  * </pre>
+ * If {@code instances.cache.enabled} is true, parsed instances and their preprocessing results
+ * are stored in a binary cache keyed by the source contents, see {@link PSSCInstanceCache}.
+ * If {@code instances.reduction.enabled} is true, every instance is reduced as soon as it is loaded, so its
+ * reduction statistics are part of the instance properties, see {@link PSSCReduction}.
+ * Likewise, if {@code instances.lower-bound.enabled} is true, the lower bound of every instance is computed when it is loaded.
  */
 @Service
 public class PSSCInstanceImporter
         extends InstanceImporter<PSSCInstance> {
 
+    private static final Logger log = LoggerFactory.getLogger(PSSCInstanceImporter.class);
+
+    @Value("${instances.cache.enabled:false}")
+    private boolean cacheEnabled = false;
+
+    @Value("${instances.cache.path:cache/instances}")
+    private String cachePath = "cache/instances";
+
+    @Value("${instances.reduction.enabled:false}")
+    private boolean reductionEnabled = false;
+
+    @Value("${instances.lower-bound.enabled:false}")
+    private boolean lowerBoundEnabled = false;
+
     /** Framework‑required method (BufferedReader + filename). */
     @Override
     public PSSCInstance importInstance(BufferedReader reader, String filename)
             throws IOException {
+        var instance = load(reader, filename);
+        if (reductionEnabled) {
+            instance.getReduction();
+        }
+        if (lowerBoundEnabled) {
+            instance.getLowerBound();
+        }
+        return instance;
+    }
 
-        try (Scanner sc = new Scanner(reader)) {
-
-            /* ---------- 1. header ------------------------------------------ */
-            int nPoints = sc.nextInt();   // m (rows)
-            int nSets   = sc.nextInt();   // n (columns)
+    private PSSCInstance load(BufferedReader reader, String filename) throws IOException {
+        if (!cacheEnabled) {
+            return parse(reader, filename);
+        }
 
-            /* ---------- 2. skip cost vector (unicost instances) ------------ */
-            for (int i = 0; i < nSets; i++) sc.nextInt();
+        char[] content = new char[1 << 16];
+        int length = 0;
+        int read;
+        while ((read = reader.read(content, length, content.length - length)) >= 0) {
+            length += read;
+            if (length == content.length) {
+                content = Arrays.copyOf(content, content.length * 2);
+            }
+        }
 
-            /* ---------- 3. init coverage array ----------------------------- */
-            BitSet[] coverage = new BitSet[nSets];
-            for (int s = 0; s < nSets; s++) {
-                coverage[s] = new BitSet(nPoints);
+        var cache = new PSSCInstanceCache(Path.of(cachePath));
+        byte[] hash = PSSCInstanceCache.hash(content, length);
+        try {
+            var cached = cache.read(filename, hash);
+            if (cached != null) {
+                return cached;
             }
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cached instance {}: {}", cache.pathFor(filename, hash), e.getMessage());
+        }
 
-            /* ---------- 4. read point blocks ------------------------------- */
-            for (int p = 0; p < nPoints; p++) {
-                if (!sc.hasNextInt()) {
-                    throw new IOException("Unexpected EOF at point " + p +
+        var instance = parse(new CharArrayReader(content, 0, length), filename);
+        try {
+            cache.write(filename, hash, instance);
+        } catch (IOException e) {
+            log.warn("Could not cache instance {}: {}", filename, e.getMessage());
+        }
+        return instance;
+    }
+
+    /**
+     * Parse an instance in OR-Library text format
+     * @param reader source
+     * @param filename instance name
+     * @return parsed instance
+     * @throws IOException if the source cannot be read or is truncated
+     */
+    private PSSCInstance parse(Reader reader, String filename) throws IOException {
+
+        var tokens = new OrLibraryTokenizer(reader, filename);
+
+        /* ---------- 1. header ---------------------------------------------- */
+        int nPoints = tokens.nextInt();   // m (rows)
+        int nSets   = tokens.nextInt();   // n (columns)
+
+        /* ---------- 2. skip cost vector (unicost instances) ---------------- */
+        for (int i = 0; i < nSets; i++) tokens.nextInt();
+
+        /* ---------- 3. read point blocks ----------------------------------- */
+        // Point → sets rows, each sorted and without repeated sets
+        int[] rowOffsets = new int[nPoints + 1];
+        int[] rowSets = new int[Math.max(16, nPoints)];
+        int[] setDegree = new int[nSets];
+        for (int p = 0; p < nPoints; p++) {
+            if (!tokens.hasNextInt()) {
+                throw new IOException("Unexpected EOF at point " + p +
+                                      " in instance " + filename);
+            }
+            int k = tokens.nextInt();            // sets covering point p
+            int start = rowOffsets[p];
+            if (rowSets.length - start < k) {
+                rowSets = Arrays.copyOf(rowSets, Math.max(rowSets.length * 2, start + k));
+            }
+            for (int h = 0; h < k; h++) {
+                int setIdx = tokens.nextInt() - 1;   // 1‑based → 0‑based
+                if (setIdx < 0 || setIdx >= nSets) {
+                    throw new IOException("Invalid set " + (setIdx + 1) + " at point " + p +
                                           " in instance " + filename);
                 }
-                int k = sc.nextInt();                // sets covering point p
-                for (int h = 0; h < k; h++) {
-                    int setIdx = sc.nextInt() - 1;   // 1‑based → 0‑based
-                    coverage[setIdx].add(p);
+                rowSets[start + h] = setIdx;
+            }
+            Arrays.sort(rowSets, start, start + k);
+            int end = start;
+            for (int h = start; h < start + k; h++) {
+                if (end == start || rowSets[h] != rowSets[end - 1]) {
+                    rowSets[end++] = rowSets[h];
+                    setDegree[rowSets[h]]++;
                 }
             }
+            rowOffsets[p + 1] = end;
+        }
 
-            return new PSSCInstance(nSets, nPoints, coverage, filename);
+        /* ---------- 4. set → points adjacency ------------------------------ */
+        // Visiting points in order leaves every set row sorted ascending
+        int[] setOffsets = new int[nSets + 1];
+        for (int s = 0; s < nSets; s++) {
+            setOffsets[s + 1] = setOffsets[s] + setDegree[s];
         }
+        int[] setPoints = new int[setOffsets[nSets]];
+        int[] next = Arrays.copyOf(setOffsets, nSets);
+        for (int p = 0; p < nPoints; p++) {
+            for (int i = rowOffsets[p]; i < rowOffsets[p + 1]; i++) {
+                setPoints[next[rowSets[i]]++] = p;
+            }
+        }
+
+        return new PSSCInstance(filename, nSets, nPoints, setOffsets, setPoints);
     }
 }
@@ -0,0 +1,282 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import java.util.Arrays;
+
+/**
+ * Lagrangian lower bound on the number of sets of any feasible solution, computed with subgradient optimization.
+ * <p>
+ * Partial covering is modelled with a variable {@code x_s} per set and {@code y_p} per point, minimizing
+ * {@code sum x_s} subject to {@code sum_{s covers p} x_s >= y_p} for every point and {@code sum w_p y_p >= target}.
+ * Relaxing the point constraints with multipliers {@code u_p >= 0} splits the problem in two easy parts:
+ * sets are chosen if their reduced cost {@code 1 - sum_{p in s} u_p} is negative, and points are chosen by increasing
+ * {@code u_p / w_p} until the target weight is reached, the last one fractionally. For any multipliers the sum of
+ * both parts is a lower bound, and as the number of sets is an integer, so is its ceiling.
+ * <p>
+ * Multipliers are updated with the classic subgradient step {@code lambda * (UB - L) / |g|^2}, where UB is the
+ * score of a greedy solution, halving lambda when the bound stops improving.
+ */
+public final class PSSCLowerBound {
+
+    private static final int MAX_ITERATIONS = 1000;
+    private static final int STALL_ITERATIONS = 20;
+    private static final double MIN_LAMBDA = 1e-4;
+    private static final double EPSILON = 1e-6;
+    private static final int INSERTION_SORT_LENGTH = 16;
+
+    private PSSCLowerBound() {}
+
+    /**
+     * Compute a lower bound for an instance. Prefer {@link PSSCInstance#getLowerBound()}, which caches the result.
+     * @param instance instance, not modified
+     * @return lower bound on the score of any feasible solution
+     */
+    public static int compute(PSSCInstance instance) {
+        if (instance.getMinCoveredRequired() <= 0) {
+            return 0;
+        }
+        int upperBound = greedyScore(instance);
+        if (upperBound == Integer.MAX_VALUE) {
+            return 0;
+        }
+        double l = optimize(instance, initialMultipliers(instance), null, upperBound, MAX_ITERATIONS);
+        return Math.min((int) Math.ceil(l - EPSILON), upperBound);
+    }
+
+    /**
+     * Starting multipliers, each point gets the inverse size of the largest set covering it
+     * @param instance instance
+     * @return multiplier of each point
+     */
+    public static double[] initialMultipliers(PSSCInstance instance) {
+        int[] pointOffsets = instance.getPointOffsets(), pointSets = instance.getPointSets();
+        double[] u = new double[instance.getnPoints()];
+        for (int p = 0; p < u.length; p++) {
+            double best = 0;
+            for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                best = Math.max(best, 1.0 / instance.setDegree(pointSets[j]));
+            }
+            u[p] = best;
+        }
+        return u;
+    }
+
+    /**
+     * Reduced cost of every set for the given multipliers, {@code 1 - sum_{p in s} u_p}
+     * @param instance instance
+     * @param u multiplier of each point
+     * @param costs array where the reduced cost of each set is stored
+     */
+    public static void reducedCosts(PSSCInstance instance, double[] u, double[] costs) {
+        int[] setOffsets = instance.getSetOffsets(), setPoints = instance.getSetPoints();
+        for (int s = 0; s < costs.length; s++) {
+            double cost = 1;
+            for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                cost -= u[setPoints[i]];
+            }
+            costs[s] = cost;
+        }
+    }
+
+    /**
+     * Subgradient optimization of the Lagrangian dual
+     * @param instance instance, its target must be reachable
+     * @param u starting multipliers, replaced by the best multipliers found
+     * @param columns sets that can be chosen, null for every set. When restricted, the result only bounds the
+     *                problem on those sets
+     * @param upperBound score of a feasible solution, used to size the steps
+     * @param maxIterations maximum number of iterations
+     * @return best value of the Lagrangian function, its ceiling is a lower bound
+     */
+    static double optimize(PSSCInstance instance, double[] u, boolean[] columns, int upperBound, int maxIterations) {
+        return optimize(instance, u, columns, null, instance.getMinCoveredRequired(), upperBound, maxIterations);
+    }
+
+    /**
+     * Subgradient optimization of the Lagrangian dual of the problem left once some points are covered, as in a
+     * branch and bound node: cover {@code target} more weight of the uncovered points with the given sets.
+     * Multipliers of covered points are set to 0 and left unchanged.
+     * @param instance instance
+     * @param u starting multipliers, replaced by the best multipliers found
+     * @param columns sets that can be chosen, null for every set
+     * @param covered points already covered, one bit per point in 64 bit words as in
+     *                {@link PSSCInstance#getPackedCoverage()}, null if none
+     * @param target weight of uncovered points that must still be covered, positive
+     * @param upperBound number of sets of a known solution of this problem, used to size the steps. The optimization
+     *                   stops once the bound reaches it
+     * @param maxIterations maximum number of iterations
+     * @return best value of the Lagrangian function, its ceiling is a lower bound on the number of sets to add
+     */
+    public static double optimize(PSSCInstance instance, double[] u, boolean[] columns, long[] covered, int target,
+                                  int upperBound, int maxIterations) {
+        int nSets = instance.getnSets(), nPoints = instance.getnPoints();
+        int[] setOffsets = instance.getSetOffsets(), setPoints = instance.getSetPoints();
+        int[] pointOffsets = instance.getPointOffsets(), pointSets = instance.getPointSets();
+
+        if (covered != null) {
+            for (int p = 0; p < nPoints; p++) {
+                if (isCovered(covered, p)) u[p] = 0;
+            }
+        }
+        boolean[] x = new boolean[nSets];
+        double[] y = new double[nPoints];
+        double[] g = new double[nPoints];
+        double[] bestU = u.clone();
+        double[] ratio = new double[nPoints];
+        int[] order = new int[nPoints];
+        for (int p = 0; p < nPoints; p++) {
+            order[p] = p;
+        }
+        double lambda = 2, bestL = Double.NEGATIVE_INFINITY, maxL = Double.NEGATIVE_INFINITY;
+        int stall = 0;
+
+        for (int it = 0; it < maxIterations; it++) {
+            // Sets with a negative reduced cost
+            double l = 0;
+            for (int s = 0; s < nSets; s++) {
+                if (columns != null && !columns[s]) {
+                    x[s] = false;
+                    continue;
+                }
+                double cost = 1;
+                for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                    cost -= u[setPoints[i]];
+                }
+                x[s] = cost < 0;
+                if (x[s]) l += cost;
+            }
+
+            // Cheapest points per unit of weight until the target is reached. The order of the previous iteration
+            // is kept as the starting permutation, multipliers change little between iterations
+            for (int p = 0; p < nPoints; p++) {
+                ratio[p] = u[p] / instance.pointWeight(p);
+            }
+            sortByRatio(order, ratio, 0, nPoints - 1);
+            Arrays.fill(y, 0);
+            long reached = 0;
+            for (int i = 0; i < nPoints && reached < target; i++) {
+                int p = order[i];
+                if (covered != null && isCovered(covered, p)) continue;
+                int w = instance.pointWeight(p);
+                int taken = (int) Math.min(w, target - reached);
+                y[p] = taken / (double) w;
+                l += u[p] * y[p];
+                reached += taken;
+            }
+
+            if (l > maxL) {
+                maxL = l;
+                System.arraycopy(u, 0, bestU, 0, nPoints);
+            }
+            if (Math.ceil(maxL - EPSILON) >= upperBound) {
+                break;
+            }
+            if (l > bestL + EPSILON) {
+                bestL = l;
+                stall = 0;
+            } else if (++stall >= STALL_ITERATIONS) {
+                lambda /= 2;
+                stall = 0;
+                if (lambda < MIN_LAMBDA) break;
+            }
+
+            // Subgradient of the relaxed constraints, y_p - sum_{s covers p} x_s
+            double norm = 0;
+            for (int p = 0; p < nPoints; p++) {
+                if (covered != null && isCovered(covered, p)) {
+                    g[p] = 0;
+                    continue;
+                }
+                double gp = y[p];
+                for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                    if (x[pointSets[j]]) gp--;
+                }
+                // Multipliers that are already 0 cannot decrease further
+                g[p] = u[p] <= 0 && gp < 0 ? 0 : gp;
+                norm += g[p] * g[p];
+            }
+            if (norm == 0) {
+                break;                                 // no ascent direction left
+            }
+            double step = lambda * (upperBound - l) / norm;
+            for (int p = 0; p < nPoints; p++) {
+                u[p] = Math.max(0, u[p] + step * g[p]);
+            }
+        }
+        System.arraycopy(bestU, 0, u, 0, nPoints);
+        return maxL;
+    }
+
+    /**
+     * Sort point ids by increasing ratio, with a quicksort that switches to insertion sort on short ranges.
+     * Sorting boxed ids with a comparator took most of the time of each iteration.
+     * @param order point ids, sorted in place
+     * @param ratio ratio of each point
+     * @param from first position to sort
+     * @param to last position to sort, inclusive
+     */
+    private static void sortByRatio(int[] order, double[] ratio, int from, int to) {
+        while (to - from >= INSERTION_SORT_LENGTH) {
+            // Median of three as pivot, the order of the previous iteration is almost sorted
+            int mid = (from + to) >>> 1;
+            if (Double.compare(ratio[order[mid]], ratio[order[from]]) < 0) swap(order, mid, from);
+            if (Double.compare(ratio[order[to]], ratio[order[from]]) < 0) swap(order, to, from);
+            if (Double.compare(ratio[order[to]], ratio[order[mid]]) < 0) swap(order, to, mid);
+            double pivot = ratio[order[mid]];
+            int i = from, j = to;
+            while (i <= j) {
+                while (Double.compare(ratio[order[i]], pivot) < 0) i++;
+                while (Double.compare(ratio[order[j]], pivot) > 0) j--;
+                if (i <= j) swap(order, i++, j--);
+            }
+            // Recurse on the shorter side, loop on the longer one
+            if (j - from < to - i) {
+                sortByRatio(order, ratio, from, j);
+                from = i;
+            } else {
+                sortByRatio(order, ratio, i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            int p = order[i];
+            double r = ratio[p];
+            int j = i - 1;
+            while (j >= from && Double.compare(ratio[order[j]], r) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = p;
+        }
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+    }
+
+    private static boolean isCovered(long[] covered, int point) {
+        return (covered[point >>> 6] & (1L << point)) != 0;
+    }
+
+    /**
+     * Score of a solution built by repeatedly adding the set with the highest gain
+     */
+    private static int greedyScore(PSSCInstance instance) {
+        var solution = new PSSCSolution(instance);
+        int nSets = instance.getnSets();
+        while (!solution.isCovered()) {
+            int best = -1;
+            for (int s = 0; s < nSets; s++) {
+                if (best < 0 || solution.getAddGain(s) > solution.getAddGain(best)) {
+                    best = s;
+                }
+            }
+            if (best < 0 || solution.getAddGain(best) == 0) {
+                return Integer.MAX_VALUE;              // infeasible instance
+            }
+            solution.addSet(best);
+        }
+        return solution.getScore();
+    }
+}
@@ -0,0 +1,338 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Smaller instance with the same optimal value, and the mapping to lift its solutions back to the original instance.
+ * <p>
+ * The following rules are applied in rounds until none of them changes the instance, all of them are safe for
+ * partial covering, i.e. any solution of the reduced instance lifts to a feasible solution of the original one
+ * with the same number of sets plus the forced ones, and an optimal solution is preserved:
+ * <ol>
+ *     <li><strong>Uncoverable points</strong> – points no remaining set covers are removed, the target is unchanged.</li>
+ *     <li><strong>Forced sets</strong> – if the points only a set covers weigh more than the total coverable weight
+ *         minus the target, every feasible solution contains it. It is fixed, its points are removed and the target
+ *         is reduced by their weight. If the target drops to zero, no other set is needed.</li>
+ *     <li><strong>Dominated sets</strong> – empty sets and sets contained in another remaining set are removed,
+ *         keeping one copy of duplicated sets, see {@link DominanceAnalyzer#findDominatedSets()}.</li>
+ *     <li><strong>Duplicate points</strong> – points covered by exactly the same sets are merged into one point whose
+ *         weight is the number of original points it represents.</li>
+ * </ol>
+ * The reduced instance is weighted, see {@link PSSCInstance#pointWeight(int)}, and skips dominance analysis as no
+ * dominated set is left. Statistics are available with {@link #getStats()}.
+ */
+public final class PSSCReduction {
+
+    /**
+     * Limit on the number of rounds, each round is linear in the instance size except for the dominance check
+     */
+    private static final int MAX_ROUNDS = 20;
+
+    private final PSSCInstance original;
+    private final PSSCInstance reduced;
+
+    /**
+     * Original id of each reduced instance set
+     */
+    private final int[] setMapping;
+
+    /**
+     * Original ids of the sets contained in every feasible solution
+     */
+    private final int[] forcedSets;
+
+    private final Map<String, Object> stats;
+
+    private PSSCReduction(PSSCInstance original, PSSCInstance reduced, int[] setMapping, int[] forcedSets, Map<String, Object> stats) {
+        this.original = original;
+        this.reduced = reduced;
+        this.setMapping = setMapping;
+        this.forcedSets = forcedSets;
+        this.stats = stats;
+    }
+
+    /**
+     * Sets and points of the instance being reduced, in CSR format as in {@link PSSCInstance}
+     */
+    private static final class Matrix {
+        int nSets, nPoints;
+        int[] setOffsets, setPoints, pointOffsets, pointSets;
+        int[] weights;
+        int[] setIds;
+
+        int pointDegree(int p) {
+            return pointOffsets[p + 1] - pointOffsets[p];
+        }
+
+        /**
+         * Compact the matrix, keeping only the given sets and points
+         */
+        Matrix keep(boolean[] keepSet, boolean[] keepPoint) {
+            int[] newPoint = new int[nPoints];
+            var m = new Matrix();
+            for (int p = 0; p < nPoints; p++) {
+                newPoint[p] = keepPoint[p] ? m.nPoints++ : -1;
+            }
+            for (int s = 0; s < nSets; s++) {
+                if (keepSet[s]) m.nSets++;
+            }
+            m.weights = new int[m.nPoints];
+            for (int p = 0; p < nPoints; p++) {
+                if (newPoint[p] >= 0) m.weights[newPoint[p]] = weights[p];
+            }
+            m.setIds = new int[m.nSets];
+            m.setOffsets = new int[m.nSets + 1];
+            m.pointOffsets = new int[m.nPoints + 1];
+            int nnz = 0;
+            for (int s = 0, ns = 0; s < nSets; s++) {
+                if (!keepSet[s]) continue;
+                m.setIds[ns] = setIds[s];
+                for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                    if (newPoint[setPoints[i]] >= 0) nnz++;
+                }
+                m.setOffsets[++ns] = nnz;
+            }
+            m.setPoints = new int[nnz];
+            for (int s = 0, idx = 0; s < nSets; s++) {
+                if (!keepSet[s]) continue;
+                for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                    int p = newPoint[setPoints[i]];
+                    if (p >= 0) {
+                        m.setPoints[idx++] = p;
+                        m.pointOffsets[p + 1]++;
+                    }
+                }
+            }
+            m.buildPointIndex();
+            return m;
+        }
+
+        /**
+         * Fill the point → sets index from the set → points one, each row sorted ascending
+         */
+        void buildPointIndex() {
+            for (int p = 0; p < nPoints; p++) {
+                pointOffsets[p + 1] += pointOffsets[p];
+            }
+            pointSets = new int[setPoints.length];
+            int[] next = pointOffsets.clone();
+            for (int s = 0; s < nSets; s++) {
+                for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                    pointSets[next[setPoints[i]]++] = s;
+                }
+            }
+        }
+
+        SetCoverage[] coverage() {
+            return PSSCInstance.buildCoverage(setOffsets, setPoints);
+        }
+    }
+
+    /**
+     * Reduce an instance. Prefer {@link PSSCInstance#getReduction()}, which caches the result.
+     * @param instance instance to reduce, not modified
+     * @return reduction
+     */
+    public static PSSCReduction reduce(PSSCInstance instance) {
+        long start = System.nanoTime();
+        var m = new Matrix();
+        m.nSets = instance.getnSets();
+        m.nPoints = instance.getnPoints();
+        m.setOffsets = instance.getSetOffsets();
+        m.setPoints = instance.getSetPoints();
+        m.pointOffsets = instance.getPointOffsets();
+        m.pointSets = instance.getPointSets();
+        m.weights = new int[m.nPoints];
+        for (int p = 0; p < m.nPoints; p++) {
+            m.weights[p] = instance.pointWeight(p);
+        }
+        m.setIds = new int[m.nSets];
+        Arrays.setAll(m.setIds, s -> s);
+
+        int target = instance.getMinCoveredRequired();
+        int[] forced = new int[0];
+        int nForced = 0, nDominated = 0, nUncoverable = 0, nMerged = 0, rounds = 0;
+
+        boolean changed = true;
+        while (changed && rounds < MAX_ROUNDS) {
+            rounds++;
+            changed = false;
+            boolean[] keepSet = new boolean[m.nSets];
+            boolean[] keepPoint = new boolean[m.nPoints];
+            Arrays.fill(keepSet, true);
+
+            // 1. Uncoverable points
+            long coverable = 0;
+            for (int p = 0; p < m.nPoints; p++) {
+                keepPoint[p] = m.pointDegree(p) > 0;
+                if (keepPoint[p]) {
+                    coverable += m.weights[p];
+                } else {
+                    nUncoverable++;
+                    changed = true;
+                }
+            }
+
+            // 2. Forced sets, the slack of the remaining points does not change when a forced set is fixed
+            if (target > 0 && coverable >= target) {
+                long slack = coverable - target;
+                for (int s = 0; s < m.nSets; s++) {
+                    long exclusive = 0;
+                    for (int i = m.setOffsets[s]; i < m.setOffsets[s + 1]; i++) {
+                        int p = m.setPoints[i];
+                        if (m.pointDegree(p) == 1) exclusive += m.weights[p];
+                    }
+                    if (exclusive <= slack) continue;
+                    if (nForced == forced.length) {
+                        forced = Arrays.copyOf(forced, Math.max(4, nForced * 2));
+                    }
+                    forced[nForced++] = m.setIds[s];
+                    keepSet[s] = false;
+                    for (int i = m.setOffsets[s]; i < m.setOffsets[s + 1]; i++) {
+                        int p = m.setPoints[i];
+                        if (keepPoint[p]) {
+                            keepPoint[p] = false;
+                            target -= m.weights[p];
+                        }
+                    }
+                    changed = true;
+                }
+            }
+            if (target <= 0) {
+                // Forced sets already reach the target, no other set is needed
+                target = 0;
+                Arrays.fill(keepSet, false);
+                Arrays.fill(keepPoint, false);
+                m = m.keep(keepSet, keepPoint);
+                break;
+            }
+            if (changed) {
+                m = m.keep(keepSet, keepPoint);
+            }
+
+            // 3. Dominated sets
+            var dominated = new DominanceAnalyzer(m.coverage(), m.setOffsets, m.setPoints, m.pointOffsets, m.pointSets)
+                    .findDominatedSets();
+            if (dominated.size() > 0) {
+                keepSet = new boolean[m.nSets];
+                keepPoint = new boolean[m.nPoints];
+                Arrays.fill(keepSet, true);
+                Arrays.fill(keepPoint, true);
+                for (int s : dominated) {
+                    keepSet[s] = false;
+                }
+                nDominated += dominated.size();
+                m = m.keep(keepSet, keepPoint);
+                changed = true;
+            }
+
+            // 4. Duplicate points, merged into the first point with the same covering sets
+            var representative = new HashMap<IntBuffer, Integer>();
+            keepPoint = new boolean[m.nPoints];
+            int merged = 0;
+            for (int p = 0; p < m.nPoints; p++) {
+                var row = IntBuffer.wrap(m.pointSets, m.pointOffsets[p], m.pointDegree(p));
+                Integer first = representative.putIfAbsent(row, p);
+                if (first == null || m.pointDegree(p) == 0) {
+                    keepPoint[p] = true;
+                } else {
+                    m.weights[first] += m.weights[p];
+                    merged++;
+                }
+            }
+            if (merged > 0) {
+                keepSet = new boolean[m.nSets];
+                Arrays.fill(keepSet, true);
+                nMerged += merged;
+                m = m.keep(keepSet, keepPoint);
+                changed = true;
+            }
+        }
+
+        boolean weighted = false;
+        for (int w : m.weights) {
+            weighted |= w != 1;
+        }
+        var reduced = new PSSCInstance(instance.getId() + "#reduced", m.nSets, m.nPoints, m.setOffsets, m.setPoints,
+                m.pointOffsets, m.pointSets, new BitSet(m.nSets), 0, target, weighted ? m.weights : null);
+
+        var stats = new LinkedHashMap<String, Object>();
+        stats.put("reducedSets", m.nSets);
+        stats.put("reducedPoints", m.nPoints);
+        stats.put("reducedTarget", target);
+        stats.put("forcedSets", nForced);
+        stats.put("dominatedSets", nDominated);
+        stats.put("uncoverablePoints", nUncoverable);
+        stats.put("mergedPoints", nMerged);
+        stats.put("reductionRounds", rounds);
+        stats.put("reductionMillis", (System.nanoTime() - start) / 1_000_000);
+        return new PSSCReduction(instance, reduced, m.setIds, Arrays.copyOf(forced, nForced), stats);
+    }
+
+    /**
+     * Build the solution of the original instance that corresponds to a reduced instance solution
+     * @param reducedSolution solution of {@link #getReducedInstance()}, not modified
+     * @return new solution of the original instance, feasible if the reduced one is
+     */
+    public PSSCSolution lift(PSSCSolution reducedSolution) {
+        if (reducedSolution.getInstance() != reduced) {
+            throw new IllegalArgumentException("Solution does not belong to the reduced instance " + reduced.getId());
+        }
+        var solution = new PSSCSolution(original);
+        for (int set : forcedSets) {
+            solution.addSet(set);
+        }
+        for (int s : reducedSolution.getChosenSets()) {
+            solution.addSet(setMapping[s]);
+        }
+        solution.notifyUpdate();
+        return solution;
+    }
+
+    /**
+     * @return instance this reduction was built from
+     */
+    public PSSCInstance getOriginalInstance() {
+        return original;
+    }
+
+    /**
+     * Reduced instance, its coverage target is the original one minus the weight covered by the forced sets
+     * @return reduced instance
+     */
+    public PSSCInstance getReducedInstance() {
+        return reduced;
+    }
+
+    /**
+     * Original id of a reduced instance set
+     * @param set reduced instance set id
+     * @return original instance set id
+     */
+    public int getOriginalSetId(int set) {
+        return setMapping[set];
+    }
+
+    /**
+     * Sets contained in every feasible solution, added to every lifted solution
+     * @return original ids of the forced sets
+     */
+    public int[] getForcedSets() {
+        return forcedSets.clone();
+    }
+
+    /**
+     * Reduction statistics, by property name: remaining sets, points and target, forced sets, removed dominated sets,
+     * uncoverable and merged points, number of rounds and time spent
+     * @return statistics
+     */
+    public Map<String, Object> getStats() {
+        return stats;
+    }
+}
@@ -3,6 +3,8 @@ package es.urjc.etsii.grafo.PSSC.model;
 import es.urjc.etsii.grafo.solution.Solution;
 import es.urjc.etsii.grafo.util.collections.BitSet;
 
+import java.util.Arrays;
+
 public class PSSCSolution extends Solution<PSSCSolution, PSSCInstance> {
 
     /**
@@ -12,9 +14,15 @@ public class PSSCSolution extends Solution<PSSCSolution, PSSCInstance> {
 
     /**
      * Minimum number of points that must be covered to be considered feasible.
+     * In reduced instances, points are weighted and every counter below is a total weight, see {@link PSSCInstance#pointWeight(int)}.
      */
     final int minCoveredRequired;
 
+    /**
+     * Point weights of the instance, null if every point counts once
+     */
+    private final int[] pointWeights;
+
     /**
      * Set of sets chosen whose points will be covered
      */
@@ -25,18 +33,69 @@ public class PSSCSolution extends Solution<PSSCSolution, PSSCInstance> {
      */
     int[] coverCount;
 
+    /**
+     * Number of points covered by at least one chosen set
+     */
+    int nCovered;
+
+    /**
+     * Number of points covered by exactly one chosen set
+     */
+    int nCoveredOnce;
+
+    /**
+     * For each set, how many currently uncovered points it covers, i.e. how many points would be newly covered if added.
+     * Always 0 for chosen sets.
+     */
+    int[] addGain;
+
+    /**
+     * For each chosen set, how many points only it covers, i.e. how many points would be uncovered if removed.
+     * Always 0 for sets not chosen.
+     */
+    int[] dropLoss;
+
+    /**
+     * Undo journal, every set added or removed since the first active checkpoint, in order.
+     * Added sets are stored as their id, removed sets as the bitwise complement of their id.
+     */
+    private int[] journal = new int[0];
+    private int journalSize;
+    private boolean journaling;
+
+    /**
+     * Sets the neighborhoods may add, null if every set can be added
+     */
+    private PSSCCore core;
+
     public PSSCSolution(PSSCInstance instance) {
         super(instance);
         this.chosenSets = new BitSet(instance.getnSets());
-        this.minCoveredRequired = (int) Math.ceil(instance.getnPoints() * MIN_COVERAGE);
+        this.minCoveredRequired = instance.getMinCoveredRequired();
+        this.pointWeights = instance.getPointWeights();
         this.coverCount = new int[instance.getnPoints()];
+        this.addGain = new int[instance.getnSets()];
+        this.dropLoss = new int[instance.getnSets()];
+        for (int set = 0; set < addGain.length; set++) {
+            addGain[set] = instance.setWeight(set);
+        }
     }
 
+    /**
+     * Copy a solution. The undo journal is not copied, the new solution has no active checkpoints.
+     * @param solution solution to copy
+     */
     public PSSCSolution(PSSCSolution solution) {
         super(solution);
         this.chosenSets = solution.chosenSets.clone();
         this.minCoveredRequired = solution.minCoveredRequired;
+        this.pointWeights = solution.pointWeights;
         this.coverCount = solution.coverCount.clone();
+        this.nCovered = solution.nCovered;
+        this.nCoveredOnce = solution.nCoveredOnce;
+        this.addGain = solution.addGain.clone();
+        this.dropLoss = solution.dropLoss.clone();
+        this.core = solution.core;
     }
 
     /**
@@ -48,64 +107,302 @@ public class PSSCSolution extends Solution<PSSCSolution, PSSCInstance> {
     }
 
     /**
-     *
+     * Constant time check, the number of covered points is maintained when adding or removing sets.
+     * If assertions are enabled, the cached counters are checked against a full recomputation.
      * @return true if the minimum coverage is reached
      */
     public boolean isCovered() {
-        return coveredPoints().size() >= minCoveredRequired;
+        assert countersAreConsistent();
+        return nCovered >= minCoveredRequired;
+    }
+
+    /**
+     * Number of points covered by at least one chosen set
+     * @return number of covered points
+     */
+    public int getCoveredCount() {
+        return nCovered;
+    }
+
+    /**
+     * Number of points covered by exactly one chosen set
+     * @return number of points covered once
+     */
+    public int getCoveredOnceCount() {
+        return nCoveredOnce;
+    }
+
+    /**
+     * How many currently uncovered points would be covered if the given set is added, in constant time.
+     * @param set set id
+     * @return number of uncovered points covered by the set, 0 if the set is already chosen
+     */
+    public int getAddGain(int set) {
+        return addGain[set];
+    }
+
+    /**
+     * How many points would become uncovered if the given set is removed, in constant time.
+     * @param set set id
+     * @return number of points covered only by the set, 0 if the set is not chosen
+     */
+    public int getDropLoss(int set) {
+        return dropLoss[set];
+    }
+
+    /**
+     * Number of chosen sets that cover the given point
+     * @param point point id
+     * @return 0 if the point is not covered
+     */
+    public int getCoverCount(int point) {
+        return coverCount[point];
+    }
+
+    /**
+     * Check if removing the given chosen set keeps the solution feasible, in constant time.
+     * @param set chosen set
+     * @return true if the coverage after removing the set is still enough
+     */
+    public boolean canRemove(int set) {
+        return nCovered - dropLoss[set] >= minCoveredRequired;
+    }
+
+    /**
+     * Check if the solution stays feasible without any point of the given chosen set, in constant time.
+     * Unlike {@link #canRemove(int)}, points also covered by other chosen sets are discounted too,
+     * this is the drop rule of {@link es.urjc.etsii.grafo.PSSC.model.neigh.RemoveNeighborhood}.
+     * @param set chosen set
+     * @return true if the points covered outside the set are enough
+     */
+    public boolean canRemoveAllPoints(int set) {
+        return nCovered - getInstance().setWeight(set) >= minCoveredRequired;
+    }
+
+    /**
+     * How many points over the minimum required are currently covered.
+     * Negative if the solution is not feasible.
+     * @return covered points minus required points
+     */
+    public int slack() {
+        return nCovered - minCoveredRequired;
     }
 
     /**
-     * Compute all covered and uncovered points
+     * Compute all covered and uncovered points from scratch. Prefer {@link #getCoveredCount()}
+     * if only the number of covered points is needed.
      * @return set that contains all points covered by the chosen sets
      */
     public BitSet coveredPoints() {
         var instance = getInstance();
         BitSet coveredPoints = new BitSet(instance.getnPoints());
         for (int set : this.chosenSets) {
-            coveredPoints.or(instance.getCoveredPoints(set));
+            instance.getCoveredPoints(set).forEach(coveredPoints::add);
         }
         return coveredPoints;
     }
 
+    /**
+     * Ratio between the covered points and the minimum required, in constant time.
+     * @return coverage ratio, feasible solutions have a value greater or equal than 1
+     */
     public double coverage() {
-        return coveredPoints().size() / (double) minCoveredRequired;
+        return nCovered / (double) minCoveredRequired;
     }
 
     /**
      * Picks a set, all its points will now be covered.
+     * The add gain and drop loss scores are only updated for the sets that share
+     * a point whose cover count changes from 0 to 1 or from 1 to 2.
+     * Adding an already chosen set does not modify the solution.
      * @param set set to add to the solution
      * @return number of new points covered by this set
      */
     public int addSet(int set) {
+        if (chosenSets.contains(set)) {
+            return 0;
+        }
         chosenSets.add(set);
+        if (journaling) {
+            record(set);
+        }
+        var instance = getInstance();
+        int[] offsets = instance.getSetOffsets();
+        int[] points = instance.getSetPoints();
+        int[] pointOffsets = instance.getPointOffsets();
+        int[] pointSets = instance.getPointSets();
         int newCovered = 0;
-        for(var point : getInstance().getCoveredPoints(set)){
-            if(coverCount[point] == 0){
-                newCovered++;
+        for (int i = offsets[set]; i < offsets[set + 1]; i++) {
+            int point = points[i];
+            int count = coverCount[point]++;
+            if (count == 0) {
+                int w = pointWeights == null ? 1 : pointWeights[point];
+                newCovered += w;
+                nCoveredOnce += w;
+                dropLoss[set] += w;
+                for (int j = pointOffsets[point]; j < pointOffsets[point + 1]; j++) {
+                    addGain[pointSets[j]] -= w;
+                }
+            } else if (count == 1) {
+                int w = pointWeights == null ? 1 : pointWeights[point];
+                nCoveredOnce -= w;
+                dropLoss[uniqueCoveringSet(point, set)] -= w;
             }
-            coverCount[point]++;
         }
+        nCovered += newCovered;
         return newCovered;
     }
 
     /**
      * Removes a set, its points may or may not be covered by other sets.
+     * The add gain and drop loss scores are only updated for the sets that share
+     * a point whose cover count changes from 1 to 0 or from 2 to 1.
+     * Removing a set that is not chosen does not modify the solution.
      * @param set set to remove from the solution
      * @return number of points that are no longer covered after removing this set
      */
     public int removeSet(int set) {
+        if (!chosenSets.contains(set)) {
+            return 0;
+        }
         chosenSets.remove(set);
+        if (journaling) {
+            record(~set);
+        }
+        var instance = getInstance();
+        int[] offsets = instance.getSetOffsets();
+        int[] points = instance.getSetPoints();
+        int[] pointOffsets = instance.getPointOffsets();
+        int[] pointSets = instance.getPointSets();
         int newUncovered = 0;
-        for(var point : getInstance().getCoveredPoints(set)){
-            if(coverCount[point] == 1){
-                newUncovered++;
+        for (int i = offsets[set]; i < offsets[set + 1]; i++) {
+            int point = points[i];
+            int count = coverCount[point]--;
+            if (count == 1) {
+                int w = pointWeights == null ? 1 : pointWeights[point];
+                newUncovered += w;
+                nCoveredOnce -= w;
+                dropLoss[set] -= w;
+                for (int j = pointOffsets[point]; j < pointOffsets[point + 1]; j++) {
+                    addGain[pointSets[j]] += w;
+                }
+            } else if (count == 2) {
+                int w = pointWeights == null ? 1 : pointWeights[point];
+                nCoveredOnce += w;
+                dropLoss[uniqueCoveringSet(point, set)] += w;
             }
-            coverCount[point]--;
         }
+        nCovered -= newUncovered;
         return newUncovered;
     }
 
+    /**
+     * Mark the current state so it can be restored later with {@link #rollback(int)}.
+     * From the first checkpoint on, every added or removed set is recorded in an undo journal,
+     * until {@link #releaseCheckpoints()} is called. Several checkpoints can be active at the same time.
+     * @return checkpoint id, only valid for this solution
+     */
+    public int checkpoint() {
+        journaling = true;
+        return journalSize;
+    }
+
+    /**
+     * Undo every set added or removed since the given checkpoint, in reverse order.
+     * Runs in time proportional to the points touched by the undone changes, instead of the size of the solution.
+     * Checkpoints taken after the given one are no longer valid. The last modified time is not restored.
+     * @param checkpoint value returned by {@link #checkpoint()}
+     */
+    public void rollback(int checkpoint) {
+        if (!journaling || checkpoint < 0 || checkpoint > journalSize) {
+            throw new IllegalArgumentException("Invalid checkpoint " + checkpoint + ", journal size " + journalSize);
+        }
+        journaling = false;
+        while (journalSize > checkpoint) {
+            int entry = journal[--journalSize];
+            if (entry >= 0) {
+                removeSet(entry);
+            } else {
+                addSet(~entry);
+            }
+        }
+        journaling = true;
+    }
+
+    /**
+     * Discard all checkpoints and stop recording changes
+     */
+    public void releaseCheckpoints() {
+        journaling = false;
+        journalSize = 0;
+    }
+
+    /**
+     * Number of changes recorded since the first active checkpoint, i.e. the cost of rolling back to it
+     * @return undo journal size, 0 if there are no active checkpoints
+     */
+    public int getJournalSize() {
+        return journalSize;
+    }
+
+    private void record(int entry) {
+        if (journalSize == journal.length) {
+            journal = Arrays.copyOf(journal, Math.max(16, journal.length * 2));
+        }
+        journal[journalSize++] = entry;
+    }
+
+    /**
+     * Find the chosen set covering a point, other than the one being added or removed
+     * @param point point id
+     * @param ignored set that must be skipped
+     * @return chosen set id
+     */
+    private int uniqueCoveringSet(int point, int ignored) {
+        var instance = getInstance();
+        int[] pointOffsets = instance.getPointOffsets();
+        int[] pointSets = instance.getPointSets();
+        for (int j = pointOffsets[point]; j < pointOffsets[point + 1]; j++) {
+            int candidate = pointSets[j];
+            if (candidate != ignored && chosenSets.contains(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Point " + point + " is not covered by any other chosen set");
+    }
+
+    /**
+     * Recompute the coverage counters from scratch and compare them with the incrementally maintained ones.
+     * Only used in assertions, as it is expensive.
+     * @return true if the counters are consistent with the chosen sets
+     */
+    boolean countersAreConsistent() {
+        int[] expected = new int[coverCount.length];
+        for (int set : chosenSets) {
+            getInstance().getCoveredPoints(set).forEach(point -> expected[point]++);
+        }
+        var instance = getInstance();
+        int covered = 0, once = 0;
+        for (int p = 0; p < expected.length; p++) {
+            if (expected[p] > 0) covered += instance.pointWeight(p);
+            if (expected[p] == 1) once += instance.pointWeight(p);
+        }
+        int[] offsets = instance.getSetOffsets();
+        int[] points = instance.getSetPoints();
+        for (int set = 0; set < addGain.length; set++) {
+            int gain = 0, loss = 0;
+            boolean chosen = chosenSets.contains(set);
+            for (int i = offsets[set]; i < offsets[set + 1]; i++) {
+                if (expected[points[i]] == 0) gain += instance.pointWeight(points[i]);
+                if (chosen && expected[points[i]] == 1) loss += instance.pointWeight(points[i]);
+            }
+            if (gain != addGain[set] || loss != dropLoss[set]) {
+                return false;
+            }
+        }
+        return covered == nCovered && once == nCoveredOnce && Arrays.equals(expected, coverCount);
+    }
+
     /**
      * Returns all currently chosen sets
      * @return set of sets chosen in this solution.
@@ -114,6 +411,25 @@ public class PSSCSolution extends Solution<PSSCSolution, PSSCInstance> {
         return chosenSets;
     }
 
+    /**
+     * Restrict the sets the neighborhoods and the shake may add to a core problem. The solution itself can still
+     * contain any set, and adding or removing sets directly is not affected. Copies of this solution share its core.
+     * @param core core of the same instance, null to consider every set again
+     */
+    public void setCore(PSSCCore core) {
+        if (core != null && core.getInstance() != getInstance()) {
+            throw new IllegalArgumentException("Core does not belong to instance " + getInstance().getId());
+        }
+        this.core = core;
+    }
+
+    /**
+     * @return core problem the local search is restricted to, null if every set can be added
+     */
+    public PSSCCore getCore() {
+        return core;
+    }
+
     /**
      * Minimum points that must be covered for the solution to be feasible
      * @return
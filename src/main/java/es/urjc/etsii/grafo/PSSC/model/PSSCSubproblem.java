@@ -0,0 +1,188 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+
+import java.util.Arrays;
+
+/**
+ * Reduced instance obtained by freezing part of the chosen sets of a solution.
+ * <p>
+ * Only the points not covered by the frozen sets are kept, and the coverage target is reduced by the number of
+ * points the frozen sets already cover. The free sets are the chosen sets that are not frozen, plus the
+ * non chosen sets that cover the most remaining points. Any feasible solution of the sub-instance, merged with
+ * the frozen sets, is a feasible solution of the original instance.
+ * Sub-instances skip dominance analysis, as they are short lived.
+ */
+public final class PSSCSubproblem {
+
+    private final PSSCInstance subInstance;
+
+    /**
+     * Original id of each sub-instance set
+     */
+    private final int[] setMapping;
+
+    /**
+     * Chosen sets of the original solution that were not frozen, original ids
+     */
+    private final BitSet freeChosen;
+
+    private PSSCSubproblem(PSSCInstance subInstance, int[] setMapping, BitSet freeChosen) {
+        this.subInstance = subInstance;
+        this.setMapping = setMapping;
+        this.freeChosen = freeChosen;
+    }
+
+    /**
+     * Build the sub-instance for a solution
+     * @param solution feasible solution of the original instance, not modified
+     * @param frozen chosen sets that must stay in the solution
+     * @param maxExtraSets maximum number of non chosen sets to include in the sub-instance
+     * @return subproblem
+     */
+    public static PSSCSubproblem build(PSSCSolution solution, BitSet frozen, int maxExtraSets) {
+        var instance = solution.getInstance();
+        int nSets = instance.getnSets(), nPoints = instance.getnPoints();
+        int[] setOffsets = instance.getSetOffsets(), setPoints = instance.getSetPoints();
+        int[] pointOffsets = instance.getPointOffsets(), pointSets = instance.getPointSets();
+        var chosen = solution.getChosenSets();
+
+        // Points already covered by the frozen sets are removed from the subproblem
+        boolean[] frozenCovered = new boolean[nPoints];
+        int nFrozenCovered = 0;
+        for (int set : frozen) {
+            for (int i = setOffsets[set]; i < setOffsets[set + 1]; i++) {
+                if (!frozenCovered[setPoints[i]]) {
+                    frozenCovered[setPoints[i]] = true;
+                    nFrozenCovered += instance.pointWeight(setPoints[i]);
+                }
+            }
+        }
+        int[] subPoint = new int[nPoints];
+        int nSubPoints = 0;
+        for (int p = 0; p < nPoints; p++) {
+            subPoint[p] = frozenCovered[p] ? -1 : nSubPoints++;
+        }
+        int[] subWeights = null;
+        if (instance.getPointWeights() != null) {
+            subWeights = new int[nSubPoints];
+            for (int p = 0; p < nPoints; p++) {
+                if (subPoint[p] >= 0) subWeights[subPoint[p]] = instance.pointWeight(p);
+            }
+        }
+
+        // Remaining degree of every set, restricted to the points left
+        int[] remainingDegree = new int[nSets];
+        for (int p = 0; p < nPoints; p++) {
+            if (subPoint[p] < 0) continue;
+            for (int j = pointOffsets[p]; j < pointOffsets[p + 1]; j++) {
+                remainingDegree[pointSets[j]]++;
+            }
+        }
+
+        // Free chosen sets are always kept, other sets are ranked by remaining degree
+        var freeChosen = chosen.clone();
+        freeChosen.andNot(frozen);
+        var useless = instance.getUselessSets();
+        long[] ranked = new long[nSets];
+        int nRanked = 0;
+        for (int s = 0; s < nSets; s++) {
+            if (remainingDegree[s] > 0 && !chosen.contains(s) && !useless.contains(s)) {
+                ranked[nRanked++] = ((long) -remainingDegree[s] << 32) | s;
+            }
+        }
+        Arrays.sort(ranked, 0, nRanked);
+        int nExtra = Math.min(nRanked, maxExtraSets);
+
+        int[] setMapping = new int[freeChosen.size() + nExtra];
+        int nSubSets = 0;
+        for (int set : freeChosen) {
+            setMapping[nSubSets++] = set;
+        }
+        for (int i = 0; i < nExtra; i++) {
+            setMapping[nSubSets++] = (int) ranked[i];
+        }
+        // Ascending original ids keep every CSR row of the sub-instance sorted
+        Arrays.sort(setMapping);
+
+        int[] subSetOffsets = new int[nSubSets + 1];
+        int[] subPointOffsets = new int[nSubPoints + 1];
+        for (int s = 0; s < nSubSets; s++) {
+            subSetOffsets[s + 1] = subSetOffsets[s] + remainingDegree[setMapping[s]];
+        }
+        int[] subSetPoints = new int[subSetOffsets[nSubSets]];
+        for (int s = 0, idx = 0; s < nSubSets; s++) {
+            int set = setMapping[s];
+            for (int i = setOffsets[set]; i < setOffsets[set + 1]; i++) {
+                int p = subPoint[setPoints[i]];
+                if (p >= 0) {
+                    subSetPoints[idx++] = p;
+                    subPointOffsets[p + 1]++;
+                }
+            }
+        }
+        for (int p = 0; p < nSubPoints; p++) {
+            subPointOffsets[p + 1] += subPointOffsets[p];
+        }
+        int[] subPointSets = new int[subSetPoints.length];
+        int[] next = subPointOffsets.clone();
+        for (int s = 0; s < nSubSets; s++) {
+            for (int i = subSetOffsets[s]; i < subSetOffsets[s + 1]; i++) {
+                subPointSets[next[subSetPoints[i]]++] = s;
+            }
+        }
+
+        int target = Math.max(0, solution.minCoveredRequired() - nFrozenCovered);
+        var subInstance = new PSSCInstance(instance.getId() + "#sub", nSubSets, nSubPoints, subSetOffsets, subSetPoints,
+                subPointOffsets, subPointSets, new BitSet(nSubSets), 0, target, subWeights);
+        return new PSSCSubproblem(subInstance, setMapping, freeChosen);
+    }
+
+    /**
+     * Reduced instance, whose coverage target accounts for the points covered by the frozen sets
+     * @return sub-instance
+     */
+    public PSSCInstance getSubInstance() {
+        return subInstance;
+    }
+
+    /**
+     * Number of chosen sets that can be changed in this subproblem
+     * @return number of free chosen sets
+     */
+    public int getFreeChosenCount() {
+        return freeChosen.size();
+    }
+
+    /**
+     * Solution of the sub-instance that selects the free chosen sets, always feasible
+     * @return new sub-instance solution
+     */
+    public PSSCSolution initialSolution() {
+        var solution = new PSSCSolution(subInstance);
+        for (int s = 0; s < setMapping.length; s++) {
+            if (freeChosen.contains(setMapping[s])) {
+                solution.addSet(s);
+            }
+        }
+        return solution;
+    }
+
+    /**
+     * Replace the free chosen sets of a solution of the original instance with the sets chosen by a sub-instance solution
+     * @param solution original solution this subproblem was built from, modified in place
+     * @param subSolution feasible solution of the sub-instance
+     */
+    public void merge(PSSCSolution solution, PSSCSolution subSolution) {
+        for (int s : subSolution.getChosenSets()) {
+            solution.addSet(setMapping[s]);
+        }
+        for (int set : freeChosen) {
+            int s = Arrays.binarySearch(setMapping, set);
+            if (!subSolution.getChosenSets().contains(s)) {
+                solution.removeSet(set);
+            }
+        }
+        solution.notifyUpdate();
+    }
+}
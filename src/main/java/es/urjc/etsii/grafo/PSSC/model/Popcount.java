@@ -0,0 +1,61 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Intersection counts of packed bitmaps, such as {@link PSSCInstance#getPackedCoverage()}.
+ * <p>
+ * When the project is built with the {@code vector} Maven profile and the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, a SIMD kernel based on the incubator Vector API is used.
+ * It is loaded by reflection, so the rest of the code never links against the incubator module,
+ * and the scalar kernel is used whenever it is not available.
+ */
+public final class Popcount {
+
+    private static final Logger log = LoggerFactory.getLogger(Popcount.class);
+
+    private static final String VECTOR_KERNEL = "es.urjc.etsii.grafo.PSSC.model.VectorPopcountKernel";
+
+    /**
+     * Portable implementation, always available
+     */
+    public static final PopcountKernel SCALAR = new ScalarPopcountKernel();
+
+    private static final PopcountKernel KERNEL = load();
+
+    private Popcount() {}
+
+    private static PopcountKernel load() {
+        try {
+            var kernel = (PopcountKernel) Class.forName(VECTOR_KERNEL).getConstructor().newInstance();
+            log.debug("Using {} popcount kernel", kernel.name());
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.debug("Vector popcount kernel not available, using the scalar one: {}", e.toString());
+            return SCALAR;
+        }
+    }
+
+    /**
+     * @return kernel used by this class
+     */
+    public static PopcountKernel kernel() {
+        return KERNEL;
+    }
+
+    /**
+     * Number of bits set in both ranges, see {@link PopcountKernel#andCount(long[], int, long[], int, int)}
+     */
+    public static int andCount(long[] a, int aFrom, long[] b, int bFrom, int words) {
+        return KERNEL.andCount(a, aFrom, b, bFrom, words);
+    }
+
+    /**
+     * Number of bits set in the first range but not in the second, see
+     * {@link PopcountKernel#andNotCount(long[], int, long[], int, int)}
+     */
+    public static int andNotCount(long[] a, int aFrom, long[] b, int bFrom, int words) {
+        return KERNEL.andNotCount(a, aFrom, b, bFrom, words);
+    }
+}
@@ -0,0 +1,35 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+/**
+ * Counts the points in the intersection of packed bitmaps, 64 points per word.
+ * Use {@link Popcount}, which picks the fastest implementation available at runtime.
+ */
+public interface PopcountKernel {
+
+    /**
+     * Number of bits set in both ranges, {@code |a ∧ b|}
+     * @param a first bitmap
+     * @param aFrom first word of the range in a
+     * @param b second bitmap
+     * @param bFrom first word of the range in b
+     * @param words number of words in both ranges
+     * @return number of common bits
+     */
+    int andCount(long[] a, int aFrom, long[] b, int bFrom, int words);
+
+    /**
+     * Number of bits set in the first range but not in the second, {@code |a ∧ ¬b|}
+     * @param a first bitmap
+     * @param aFrom first word of the range in a
+     * @param b second bitmap
+     * @param bFrom first word of the range in b
+     * @param words number of words in both ranges
+     * @return number of bits only in a
+     */
+    int andNotCount(long[] a, int aFrom, long[] b, int bFrom, int words);
+
+    /**
+     * @return implementation name, for logging
+     */
+    String name();
+}
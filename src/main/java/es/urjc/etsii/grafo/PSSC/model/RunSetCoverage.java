@@ -0,0 +1,66 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Ranges of consecutive points, membership by binary search on the range starts
+ */
+final class RunSetCoverage implements SetCoverage {
+
+    /**
+     * Minimum average number of points per range to prefer ranges over a CSR row view
+     */
+    static final int MIN_AVERAGE_LENGTH = 4;
+
+    /**
+     * First and last point of each range, both inclusive, sorted ascending
+     */
+    private final int[] starts;
+    private final int[] ends;
+    private final int size;
+
+    RunSetCoverage(int[] points, int from, int to, int runs) {
+        this.starts = new int[runs];
+        this.ends = new int[runs];
+        this.size = to - from;
+        int r = 0;
+        starts[0] = points[from];
+        for (int i = from + 1; i < to; i++) {
+            if (points[i] != points[i - 1] + 1) {
+                ends[r++] = points[i - 1];
+                starts[r] = points[i];
+            }
+        }
+        ends[r] = points[to - 1];
+    }
+
+    @Override
+    public boolean contains(int point) {
+        int r = Arrays.binarySearch(starts, point);
+        if (r >= 0) {
+            return true;
+        }
+        r = -r - 2;                         // last range starting before the point
+        return r >= 0 && point <= ends[r];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        for (int r = 0; r < starts.length; r++) {
+            for (int p = starts[r]; p <= ends[r]; p++) {
+                action.accept(p);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RunSetCoverage{" + size + " points, " + starts.length + " runs}";
+    }
+}
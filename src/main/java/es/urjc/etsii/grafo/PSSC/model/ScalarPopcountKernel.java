@@ -0,0 +1,30 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+/**
+ * Portable kernel, one word at a time. {@link Long#bitCount(long)} is an intrinsic on the usual platforms.
+ */
+final class ScalarPopcountKernel implements PopcountKernel {
+
+    @Override
+    public int andCount(long[] a, int aFrom, long[] b, int bFrom, int words) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(a[aFrom + w] & b[bFrom + w]);
+        }
+        return count;
+    }
+
+    @Override
+    public int andNotCount(long[] a, int aFrom, long[] b, int bFrom, int words) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(a[aFrom + w] & ~b[bFrom + w]);
+        }
+        return count;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,66 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Points covered by a set, see {@link PSSCInstance#getCoveredPoints(int)}.
+ * <p>
+ * The set → points adjacency of the instance is always stored in CSR format, so the representation of each set is
+ * chosen by {@link #of(int[], int, int)} to answer membership queries without a bitmap sized to the whole instance:
+ * <ul>
+ *     <li><strong>Sparse</strong> – a view of the sorted CSR row, binary search. Takes no extra memory.</li>
+ *     <li><strong>Dense</strong> – a bitmap spanning only the words between the first and the last point,
+ *         constant time. Used when it is not larger than the row.</li>
+ *     <li><strong>Runs</strong> – ranges of consecutive points, binary search on the ranges. Used for clustered sets
+ *         whose ranges are much fewer than their points and smaller than the bitmap.</li>
+ * </ul>
+ * Memory is therefore bounded by twice the number of nonzeros of the instance, instead of {@code nSets * nPoints} bits.
+ */
+public interface SetCoverage {
+
+    /**
+     * Check if the set covers a point
+     * @param point point id, 0 indexed
+     * @return true if the point is covered
+     */
+    boolean contains(int point);
+
+    /**
+     * @return number of points covered by the set
+     */
+    int size();
+
+    /**
+     * Visit every covered point in ascending order
+     * @param action called once per point
+     */
+    void forEach(IntConsumer action);
+
+    /**
+     * Pick the representation of a set from its points
+     * @param points CSR indices, shared by sparse sets so they must not be modified
+     * @param from first position of the set row, inclusive
+     * @param to last position of the set row, exclusive. The row must be sorted ascending without repeated points
+     * @return coverage of the set
+     */
+    static SetCoverage of(int[] points, int from, int to) {
+        int size = to - from;
+        if (size == 0) {
+            return new SparseSetCoverage(points, from, to);
+        }
+        int runs = 1;
+        for (int i = from + 1; i < to; i++) {
+            if (points[i] != points[i - 1] + 1) runs++;
+        }
+        // Extra ints needed by each representation, the sparse one is free
+        long bitmapInts = 2L * ((points[to - 1] >>> 6) - (points[from] >>> 6) + 1);
+        long runInts = 2L * runs;
+        if ((long) runs * RunSetCoverage.MIN_AVERAGE_LENGTH <= size && runInts < bitmapInts) {
+            return new RunSetCoverage(points, from, to, runs);
+        }
+        if (bitmapInts <= size) {
+            return new DenseSetCoverage(points, from, to);
+        }
+        return new SparseSetCoverage(points, from, to);
+    }
+}
@@ -0,0 +1,42 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * View of a sorted CSR row, membership by binary search
+ */
+final class SparseSetCoverage implements SetCoverage {
+
+    private final int[] points;
+    private final int from;
+    private final int to;
+
+    SparseSetCoverage(int[] points, int from, int to) {
+        this.points = points;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean contains(int point) {
+        return Arrays.binarySearch(points, from, to, point) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        for (int i = from; i < to; i++) {
+            action.accept(points[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SparseSetCoverage{" + size() + " points}";
+    }
+}
@@ -1,46 +1,112 @@
 package es.urjc.etsii.grafo.PSSC.model.neigh;
 
 import es.urjc.etsii.grafo.PSSC.model.PSSCBaseMove;
+import es.urjc.etsii.grafo.PSSC.model.PSSCCore;
 import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
 import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
 import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
 import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
-import es.urjc.etsii.grafo.util.collections.BitSet;
-
-import java.util.ArrayList;
-import java.util.List;
+import es.urjc.etsii.grafo.util.random.RandomManager;
 
 /**
  * Neighborhood that tries to add a single set.
  * Only generates moves that actually cover at least one currently uncovered point.
+ * Moves are generated lazily, optionally starting at a random set id so that
+ * first-improvement strategies are not biased toward low set ids.
+ * If the solution has a core problem, only its sets are considered, see {@link PSSCSolution#setCore(PSSCCore)}.
+ * Packed moves contain the id of the set to add.
  */
 public class AddNeighborhood
-        extends Neighborhood<AddNeighborhood.AddMove, PSSCSolution, PSSCInstance> {
+        extends Neighborhood<AddNeighborhood.AddMove, PSSCSolution, PSSCInstance>
+        implements PackedNeighborhood<AddNeighborhood.AddMove> {
+
+    private final boolean randomStart;
+
+    public AddNeighborhood() {
+        this(false);
+    }
+
+    /**
+     * @param randomStart if true, each exploration starts at a random set id and wraps around
+     */
+    public AddNeighborhood(boolean randomStart) {
+        this.randomStart = randomStart;
+    }
 
     @Override
     public ExploreResult<AddMove, PSSCSolution, PSSCInstance> explore(PSSCSolution sol) {
+        PSSCCore core = sol.getCore();
+        int nSets = candidates(sol);
+        int start = start(nSets);
+
+        return new MoveCursor<AddMove>() {
+            int visited = 0;
+
+            @Override
+            protected AddMove next() {
+                // Chosen sets always have a zero gain
+                while (visited < nSets) {
+                    int s = start + visited++;
+                    if (s >= nSets) s -= nSets;
+                    if (core != null) s = core.getSet(s);
+                    if (sol.getAddGain(s) > 0) {
+                        return new AddMove(sol, s);
+                    }
+                }
+                return null;
+            }
+        }.toExploreResult();
+    }
 
-        // Recalculate currently covered points once
-        BitSet covered = new BitSet(sol.getInstance().getnPoints());
-        for (int s : sol.getChosenSets()) {
-            covered.or(sol.getInstance().getCoveredPoints(s));
+    @Override
+    public int explorePacked(PSSCSolution sol, PackedMoveList moves) {
+        PSSCCore core = sol.getCore();
+        int nSets = candidates(sol);
+        int start = start(nSets);
+        int count = 0;
+        for (int i = 0; i < nSets; i++) {
+            int s = start + i;
+            if (s >= nSets) s -= nSets;
+            if (core != null) s = core.getSet(s);
+            if (sol.getAddGain(s) > 0) {
+                moves.add(s);
+                count++;
+            }
         }
+        return count;
+    }
 
-        List<AddMove> moves = new ArrayList<>();
-        int nSets = sol.getInstance().getnSets();
+    @Override
+    public long firstPacked(PSSCSolution sol) {
+        PSSCCore core = sol.getCore();
+        int nSets = candidates(sol);
+        int start = start(nSets);
+        for (int i = 0; i < nSets; i++) {
+            int s = start + i;
+            if (s >= nSets) s -= nSets;
+            if (core != null) s = core.getSet(s);
+            if (sol.getAddGain(s) > 0) {
+                return s;
+            }
+        }
+        return NONE;
+    }
 
-        for (int s = 0; s < nSets; s++) {
-            if (sol.getChosenSets().contains(s)) continue;
+    @Override
+    public AddMove materialize(PSSCSolution sol, long move) {
+        return new AddMove(sol, (int) move);
+    }
 
-            BitSet candidate = sol.getInstance().getCoveredPoints(s);
-            BitSet gain = candidate.clone();
-            gain.andNot(covered);
+    /**
+     * @return number of sets that may be added, the core size if the solution has one
+     */
+    private static int candidates(PSSCSolution sol) {
+        PSSCCore core = sol.getCore();
+        return core == null ? sol.getInstance().getnSets() : core.size();
+    }
 
-            if (!gain.isEmpty()) {
-                moves.add(new AddMove(sol, s));
-            }
-        }
-        return ExploreResult.fromList(moves);
+    private int start(int nSets) {
+        return randomStart && nSets > 0 ? RandomManager.getRandom().nextInt(nSets) : 0;
     }
 
     /* ---------- Move ---------- */
@@ -0,0 +1,43 @@
+package es.urjc.etsii.grafo.PSSC.model.neigh;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap allocation of the current thread, to verify that hot paths such as
+ * {@link PackedNeighborhood#firstPacked} stay (almost) allocation-free. The VNS metrics report the bytes allocated
+ * by each exploration with it.
+ * Relies on the HotSpot extension of the thread MX bean, returns -1 when not supported.
+ */
+public final class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private AllocationMeter() {}
+
+    /**
+     * @return true if allocation can be measured in this JVM
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Total bytes allocated by the current thread since it started
+     * @return allocated bytes, or -1 if not supported
+     */
+    public static long allocatedBytes() {
+        if (THREADS == null) {
+            return -1;
+        }
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package es.urjc.etsii.grafo.PSSC.model.neigh;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCBaseMove;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
+import es.urjc.etsii.grafo.util.collections.BitSet;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates the moves of a neighborhood on demand, one at a time, so consumers that only
+ * need the first move (for example {@code explore(s).moves().findFirst()}) do not pay for
+ * building the complete neighborhood.
+ * Moves are computed from the solution state when they are consumed, the solution
+ * must not be modified until the stream has been consumed.
+ * @param <M> move type
+ */
+abstract class MoveCursor<M extends PSSCBaseMove> extends Spliterators.AbstractSpliterator<M> {
+
+    protected MoveCursor() {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Compute the next move
+     * @return next move, or null if the neighborhood has been exhausted
+     */
+    protected abstract M next();
+
+    @Override
+    public boolean tryAdvance(Consumer<? super M> action) {
+        M move = next();
+        if (move == null) {
+            return false;
+        }
+        action.accept(move);
+        return true;
+    }
+
+    /**
+     * Wrap this cursor in a lazy explore result
+     * @return explore result whose moves are generated on demand
+     */
+    ExploreResult<M, PSSCSolution, PSSCInstance> toExploreResult() {
+        return new ExploreResult<>(StreamSupport.stream(this, false));
+    }
+
+    /**
+     * Iterates the chosen sets of a solution in ascending order, starting at a given id and wrapping around.
+     * Guards against the Mork BitSet capacity fault when reaching the last set.
+     */
+    static final class ChosenSets {
+        private final BitSet chosen;
+        private final int nSets;
+        private final int start;
+        private int position;
+        private boolean wrapped;
+
+        ChosenSets(BitSet chosen, int nSets, int start) {
+            this.chosen = chosen;
+            this.nSets = nSets;
+            this.start = start;
+            this.position = start;
+        }
+
+        /**
+         * @return next chosen set, or -1 if all chosen sets have been visited
+         */
+        int next() {
+            int set = nextChosen(chosen, position, wrapped ? start : nSets);
+            if (!wrapped && set < 0) {
+                wrapped = true;
+                set = nextChosen(chosen, 0, start);
+            }
+            position = set < 0 ? nSets : set + 1;
+            return set;
+        }
+    }
+
+    /**
+     * Next chosen set in a range, guarding against the Mork BitSet capacity fault
+     * @param chosen chosen sets
+     * @param from first set id to check, inclusive
+     * @param to last set id to check, exclusive. Must not be greater than the BitSet capacity
+     * @return next chosen set in the range, or -1 if there is none
+     */
+    static int nextChosen(BitSet chosen, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int set = chosen.nextSetBit(from);
+        return set < to ? set : -1;
+    }
+}
@@ -0,0 +1,65 @@
+package es.urjc.etsii.grafo.PSSC.model.neigh;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of moves encoded as primitive longs, see {@link PackedNeighborhood}.
+ * Intended to be reused between explorations, {@link #clear()} keeps the allocated capacity.
+ */
+public final class PackedMoveList {
+
+    private long[] moves;
+    private int size;
+
+    public PackedMoveList() {
+        this(64);
+    }
+
+    public PackedMoveList(int initialCapacity) {
+        this.moves = new long[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Append a packed move
+     * @param move packed move
+     */
+    public void add(long move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Get a packed move
+     * @param index position in the list
+     * @return packed move
+     */
+    public long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return moves[index];
+    }
+
+    /**
+     * @return number of moves in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all moves, keeping the allocated capacity
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,68 @@
+package es.urjc.etsii.grafo.PSSC.model.neigh;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCBaseMove;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+
+/**
+ * Allocation-free exploration path for the PSSC neighborhoods.
+ * Moves are encoded as primitive longs, with the set ids involved packed in the low and high 32 bits,
+ * and a {@link PSSCBaseMove} object is only created for the move that is actually executed.
+ * Implementations keep no per-call state, so they can be shared between Mork workers.
+ * @param <M> move type
+ */
+public interface PackedNeighborhood<M extends PSSCBaseMove> {
+
+    /**
+     * Value returned when there is no move
+     */
+    long NONE = -1L;
+
+    /**
+     * Append every move of the neighborhood to the given list, in the same order as the lazy exploration
+     * @param solution current solution
+     * @param moves list where packed moves are appended, not cleared by this method
+     * @return number of moves appended
+     */
+    int explorePacked(PSSCSolution solution, PackedMoveList moves);
+
+    /**
+     * Find the first move of the neighborhood
+     * @param solution current solution
+     * @return packed move, or {@link #NONE} if the neighborhood is empty
+     */
+    long firstPacked(PSSCSolution solution);
+
+    /**
+     * Create the move object for a packed move
+     * @param solution solution the move was generated for
+     * @param move packed move
+     * @return move object
+     */
+    M materialize(PSSCSolution solution, long move);
+
+    /**
+     * Pack two set ids in a long
+     * @param high set stored in the high 32 bits
+     * @param low set stored in the low 32 bits
+     * @return packed value, never negative for valid set ids
+     */
+    static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param move packed move
+     * @return set stored in the high 32 bits
+     */
+    static int high(long move) {
+        return (int) (move >>> 32);
+    }
+
+    /**
+     * @param move packed move
+     * @return set stored in the low 32 bits
+     */
+    static int low(long move) {
+        return (int) move;
+    }
+}
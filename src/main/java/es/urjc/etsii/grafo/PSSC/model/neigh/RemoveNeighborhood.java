@@ -5,42 +5,96 @@ import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
 import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
 import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
 import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
-import es.urjc.etsii.grafo.util.collections.BitSet;
-
-import java.util.ArrayList;
-import java.util.List;
+import es.urjc.etsii.grafo.util.random.RandomManager;
 
 /**
  * DROP neighbourhood: generates a move for every selected set whose removal
- * keeps coverage ≥ 90 %.
+ * keeps coverage ≥ 90 %, counting every point of the removed set as uncovered,
+ * see {@link PSSCSolution#canRemoveAllPoints(int)}.
+ * Moves are generated lazily, optionally starting at a random set id.
+ * Packed moves contain the id of the set to remove.
  */
 public class RemoveNeighborhood
-        extends Neighborhood<RemoveNeighborhood.RemoveMove, PSSCSolution, PSSCInstance> {
+        extends Neighborhood<RemoveNeighborhood.RemoveMove, PSSCSolution, PSSCInstance>
+        implements PackedNeighborhood<RemoveNeighborhood.RemoveMove> {
+
+    private final boolean randomStart;
+
+    public RemoveNeighborhood() {
+        this(false);
+    }
+
+    /**
+     * @param randomStart if true, each exploration starts at a random set id and wraps around
+     */
+    public RemoveNeighborhood(boolean randomStart) {
+        this.randomStart = randomStart;
+    }
 
     @Override
     public ExploreResult<RemoveMove, PSSCSolution, PSSCInstance> explore(PSSCSolution sol) {
+        int nSets = sol.getInstance().getnSets();
+        int start = start(nSets);
+        var chosen = new MoveCursor.ChosenSets(sol.getChosenSets(), nSets, start);
+
+        return new MoveCursor<RemoveMove>() {
+            @Override
+            protected RemoveMove next() {
+                // For each selected set, check if it is redundant
+                for (int s = chosen.next(); s >= 0; s = chosen.next()) {
+                    if (sol.canRemoveAllPoints(s)) {
+                        return new RemoveMove(sol, s);
+                    }
+                }
+                return null;
+            }
+        }.toExploreResult();
+    }
 
-        List<RemoveMove> moves = new ArrayList<>();
-        PSSCInstance ins = sol.getInstance();
+    @Override
+    public int explorePacked(PSSCSolution sol, PackedMoveList moves) {
+        int nSets = sol.getInstance().getnSets();
+        int start = start(nSets);
+        return scan(sol, start, nSets, moves) + scan(sol, 0, start, moves);
+    }
 
-        // Build current covered points once
-        BitSet covered = new BitSet(ins.getnPoints());
-        for (int s : sol.getChosenSets()) {
-            covered.or(ins.getCoveredPoints(s));
-        }
+    @Override
+    public long firstPacked(PSSCSolution sol) {
+        int nSets = sol.getInstance().getnSets();
+        int start = start(nSets);
+        long move = first(sol, start, nSets);
+        return move != NONE ? move : first(sol, 0, start);
+    }
 
-        // For each selected set, check if it is redundant
-        for (int s : sol.getChosenSets()) {
+    @Override
+    public RemoveMove materialize(PSSCSolution sol, long move) {
+        return new RemoveMove(sol, (int) move);
+    }
 
-            BitSet afterRemoval = covered.clone();
-            afterRemoval.andNot(ins.getCoveredPoints(s));   // points still covered if we drop 's'
+    private static int scan(PSSCSolution sol, int from, int to, PackedMoveList moves) {
+        var chosen = sol.getChosenSets();
+        int count = 0;
+        for (int s = MoveCursor.nextChosen(chosen, from, to); s >= 0; s = MoveCursor.nextChosen(chosen, s + 1, to)) {
+            if (sol.canRemoveAllPoints(s)) {
+                moves.add(s);
+                count++;
+            }
+        }
+        return count;
+    }
 
-            double coverageAfter = afterRemoval.size() / (double) ins.getnPoints();
-            if (coverageAfter >= PSSCSolution.MIN_COVERAGE) {
-                moves.add(new RemoveMove(sol, s));
+    private static long first(PSSCSolution sol, int from, int to) {
+        var chosen = sol.getChosenSets();
+        for (int s = MoveCursor.nextChosen(chosen, from, to); s >= 0; s = MoveCursor.nextChosen(chosen, s + 1, to)) {
+            if (sol.canRemoveAllPoints(s)) {
+                return s;
             }
         }
-        return ExploreResult.fromList(moves);
+        return NONE;
+    }
+
+    private int start(int nSets) {
+        return randomStart && nSets > 0 ? RandomManager.getRandom().nextInt(nSets) : 0;
     }
 
     /* ---------- Move ---------- */
@@ -1,55 +1,212 @@
 package es.urjc.etsii.grafo.PSSC.model.neigh;
 
 import es.urjc.etsii.grafo.PSSC.model.PSSCBaseMove;
+import es.urjc.etsii.grafo.PSSC.model.PSSCCore;
 import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
 import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.SetCoverage;
 import es.urjc.etsii.grafo.solution.neighborhood.ExploreResult;
 import es.urjc.etsii.grafo.solution.neighborhood.Neighborhood;
 import es.urjc.etsii.grafo.util.collections.BitSet;
-
-import java.util.ArrayList;
-import java.util.List;
+import es.urjc.etsii.grafo.util.random.RandomManager;
 
 /**
- * Swaps one selected set with one unselected set, preserving feasibility.
+ * Swaps one selected set with one unselected set, preserving feasibility:
+ * the unselected set must cover every point of the selected one, so no point becomes uncovered.
+ * Candidates are enumerated through the point → sets inverted index of the instance,
+ * or of the core problem if the solution has one, see {@link PSSCSolution#setCore(PSSCCore)}.
+ * Moves are generated lazily, optionally starting at a random outgoing set id.
+ * Packed moves contain the outgoing set in the high 32 bits and the incoming set in the low 32 bits.
  */
 public class SwapNeighborhood
-        extends Neighborhood<SwapNeighborhood.SwapMove, PSSCSolution, PSSCInstance> {
+        extends Neighborhood<SwapNeighborhood.SwapMove, PSSCSolution, PSSCInstance>
+        implements PackedNeighborhood<SwapNeighborhood.SwapMove> {
+
+    private final boolean randomStart;
+
+    public SwapNeighborhood() {
+        this(false);
+    }
+
+    /**
+     * @param randomStart if true, each exploration starts at a random outgoing set id and wraps around
+     */
+    public SwapNeighborhood(boolean randomStart) {
+        this.randomStart = randomStart;
+    }
 
     @Override
     public ExploreResult<SwapMove, PSSCSolution, PSSCInstance> explore(PSSCSolution sol) {
 
-        BitSet covered = new BitSet(sol.getInstance().getnPoints());
-        for (int s : sol.getChosenSets()) {
-            covered.or(sol.getInstance().getCoveredPoints(s));
-        }
+        PSSCInstance ins = sol.getInstance();
+        int nSets = ins.getnSets();
+        var outgoing = new MoveCursor.ChosenSets(sol.getChosenSets(), nSets, start(nSets));
+
+        return new MoveCursor<SwapMove>() {
+            final int[] pointOffsets = pointOffsets(sol);
+            final int[] pointSets    = pointSets(sol);
+
+            int out = -1;
+            int candidate, lastCandidate;   // range in the inverted index row of the rarest point of 'out'
+
+            @Override
+            protected SwapMove next() {
+                while (true) {
+                    // Try the remaining sets covering the rarest point of 'out'
+                    while (candidate < lastCandidate) {
+                        int in = pointSets[candidate++];
+                        if (isFeasible(sol, in, out)) {
+                            return new SwapMove(sol, out, in);
+                        }
+                    }
+                    if (!advanceOut()) {
+                        return null;
+                    }
+                }
+            }
 
-        List<SwapMove> moves = new ArrayList<>();
+            /**
+             * Move to the next outgoing set that covers some point
+             * @return false if there are no more outgoing sets
+             */
+            private boolean advanceOut() {
+                for (out = outgoing.next(); out >= 0; out = outgoing.next()) {
+                    if (ins.setDegree(out) == 0) continue; // Empty set
+
+                    int rarest = rarestPoint(ins, out, pointOffsets);
+                    candidate = pointOffsets[rarest];
+                    lastCandidate = pointOffsets[rarest + 1];
+                    return true;
+                }
+                return false;
+            }
+        }.toExploreResult();
+    }
 
-        for (int out : sol.getChosenSets()) {
-            BitSet outCover = sol.getInstance().getCoveredPoints(out);
+    @Override
+    public int explorePacked(PSSCSolution sol, PackedMoveList moves) {
+        int nSets = sol.getInstance().getnSets();
+        int start = start(nSets);
+        return scan(sol, start, nSets, moves) + scan(sol, 0, start, moves);
+    }
 
-            // Points uniquely covered by 'out'
-            BitSet unique = outCover.clone();
-            BitSet coveredMinusOut = covered.clone();
-            coveredMinusOut.andNot(outCover);
-            unique.andNot(coveredMinusOut);
-            if (unique.isEmpty()) continue; // Set already redundant
+    @Override
+    public long firstPacked(PSSCSolution sol) {
+        int nSets = sol.getInstance().getnSets();
+        int start = start(nSets);
+        long move = first(sol, start, nSets);
+        return move != NONE ? move : first(sol, 0, start);
+    }
 
-            // Try every unselected set to compensate 'unique'
-            for (int in = 0; in < sol.getInstance().getnSets(); in++) {
-                if (sol.getChosenSets().contains(in)) continue;
+    @Override
+    public SwapMove materialize(PSSCSolution sol, long move) {
+        return new SwapMove(sol, PackedNeighborhood.high(move), PackedNeighborhood.low(move));
+    }
 
-                BitSet inCover = sol.getInstance().getCoveredPoints(in);
+    /**
+     * Append the feasible swaps whose outgoing set is in the given range
+     * @return number of moves appended
+     */
+    private static int scan(PSSCSolution sol, int from, int to, PackedMoveList moves) {
+        int[] pointOffsets = pointOffsets(sol);
+        int[] pointSets    = pointSets(sol);
+        PSSCInstance ins = sol.getInstance();
+        BitSet chosen = sol.getChosenSets();
+
+        int count = 0;
+        for (int out = MoveCursor.nextChosen(chosen, from, to); out >= 0; out = MoveCursor.nextChosen(chosen, out + 1, to)) {
+            if (ins.setDegree(out) == 0) continue; // Empty set
+
+            int rarest = rarestPoint(ins, out, pointOffsets);
+            for (int j = pointOffsets[rarest]; j < pointOffsets[rarest + 1]; j++) {
+                int in = pointSets[j];
+                if (isFeasible(sol, in, out)) {
+                    moves.add(PackedNeighborhood.pack(out, in));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
 
-                BitSet missing = unique.clone();
-                missing.andNot(inCover);
-                if (missing.isEmpty()) {              // Feasible swap
-                    moves.add(new SwapMove(sol, out, in));
+    /**
+     * First feasible swap whose outgoing set is in the given range
+     * @return packed move, or {@link #NONE}
+     */
+    private static long first(PSSCSolution sol, int from, int to) {
+        int[] pointOffsets = pointOffsets(sol);
+        int[] pointSets    = pointSets(sol);
+        PSSCInstance ins = sol.getInstance();
+        BitSet chosen = sol.getChosenSets();
+
+        for (int out = MoveCursor.nextChosen(chosen, from, to); out >= 0; out = MoveCursor.nextChosen(chosen, out + 1, to)) {
+            if (ins.setDegree(out) == 0) continue; // Empty set
+
+            int rarest = rarestPoint(ins, out, pointOffsets);
+            for (int j = pointOffsets[rarest]; j < pointOffsets[rarest + 1]; j++) {
+                int in = pointSets[j];
+                if (isFeasible(sol, in, out)) {
+                    return PackedNeighborhood.pack(out, in);
                 }
             }
         }
-        return ExploreResult.fromList(moves);
+        return NONE;
+    }
+
+    /**
+     * Point of the given set covered by the fewest sets.
+     * Any valid incoming set must cover every point of the outgoing one, so only sets covering the rarest one are
+     * candidates. The inverted index rows are sorted, so moves are generated in the same order as scanning all sets.
+     * @param ins instance
+     * @param out set with at least one point
+     * @param pointOffsets offsets of the inverted index the candidates are taken from
+     * @return rarest point
+     */
+    private static int rarestPoint(PSSCInstance ins, int out, int[] pointOffsets) {
+        int[] offsets = ins.getSetOffsets();
+        int[] points  = ins.getSetPoints();
+
+        int rarest = points[offsets[out]];
+        for (int i = offsets[out] + 1; i < offsets[out + 1]; i++) {
+            int p = points[i];
+            if (pointOffsets[p + 1] - pointOffsets[p] < pointOffsets[rarest + 1] - pointOffsets[rarest]) {
+                rarest = p;
+            }
+        }
+        return rarest;
+    }
+
+    /**
+     * Check if an unselected set covers every point of the outgoing set
+     */
+    private static boolean isFeasible(PSSCSolution sol, int in, int out) {
+        PSSCInstance ins = sol.getInstance();
+        if (sol.getChosenSets().contains(in) || ins.setDegree(in) < ins.setDegree(out)) {
+            return false;
+        }
+        int[] offsets = ins.getSetOffsets();
+        int[] points  = ins.getSetPoints();
+        SetCoverage cover = ins.getCoveredPoints(in);
+        for (int i = offsets[out]; i < offsets[out + 1]; i++) {
+            if (!cover.contains(points[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] pointOffsets(PSSCSolution sol) {
+        PSSCCore core = sol.getCore();
+        return core == null ? sol.getInstance().getPointOffsets() : core.getPointOffsets();
+    }
+
+    private static int[] pointSets(PSSCSolution sol) {
+        PSSCCore core = sol.getCore();
+        return core == null ? sol.getInstance().getPointSets() : core.getPointSets();
+    }
+
+    private int start(int nSets) {
+        return randomStart && nSets > 0 ? RandomManager.getRandom().nextInt(nSets) : 0;
     }
 
     /* ---------- Move ---------- */
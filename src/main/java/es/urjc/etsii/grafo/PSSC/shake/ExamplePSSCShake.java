@@ -1,11 +1,12 @@
 package es.urjc.etsii.grafo.PSSC.shake;
 
 import es.urjc.etsii.grafo.PSSC.model.*;
+import es.urjc.etsii.grafo.PSSC.model.neigh.PackedNeighborhood;
 import es.urjc.etsii.grafo.PSSC.model.neigh.RemoveNeighborhood;
 import es.urjc.etsii.grafo.shake.Shake;
 import es.urjc.etsii.grafo.util.random.RandomManager;
 
-import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * Shake: add 1 random unselected set, then drop any newly redundant sets.
@@ -16,16 +17,27 @@ public class ExamplePSSCShake extends Shake<PSSCSolution, PSSCInstance> {
 
     @Override
     public PSSCSolution shake(PSSCSolution solution, int k) {
+        return shake(solution, k, RandomManager.getRandom());
+    }
+
+    /**
+     * Shake using a given random generator, for callers that run outside the Mork managed threads
+     * @param solution solution to shake, modified in place
+     * @param k number of random sets to add
+     * @param rnd random generator
+     * @return the same solution
+     */
+    public PSSCSolution shake(PSSCSolution solution, int k, RandomGenerator rnd) {
 
-        var rnd = RandomManager.getRandom();
         PSSCInstance ins = solution.getInstance();
+        PSSCCore core = solution.getCore();
 
-        // 1. Add k random unselected sets (k is small, usually 1)
+        // 1. Add k random unselected sets (k is small, usually 1), from the core if there is one
         for (int i = 0; i < k; i++) {
             int tries = 0;
             int sel;
             do {
-                sel = rnd.nextInt(ins.getnSets());
+                sel = core == null ? rnd.nextInt(ins.getnSets()) : core.getSet(rnd.nextInt(core.size()));
             } while (solution.getChosenSets().contains(sel) && ++tries < 10);
 
             if (!solution.getChosenSets().contains(sel)) {
@@ -34,10 +46,10 @@ public class ExamplePSSCShake extends Shake<PSSCSolution, PSSCInstance> {
         }
 
         // 2. Drop redundant sets once (first‑improvement style)
-        var dropMoves = drop.explore(solution).moves().findFirst();
-        while (dropMoves.isPresent()) {
-            ((PSSCBaseMove) dropMoves.get()).execute(solution);
-            dropMoves = drop.explore(solution).moves().findFirst();
+        long dropMove = drop.firstPacked(solution);
+        while (dropMove != PackedNeighborhood.NONE) {
+            drop.materialize(solution, dropMove).execute(solution);
+            dropMove = drop.firstPacked(solution);
         }
         return solution;
     }
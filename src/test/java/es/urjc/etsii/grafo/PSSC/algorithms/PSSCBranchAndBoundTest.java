@@ -0,0 +1,86 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.BruteForce;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.RandomInstances;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PSSCBranchAndBoundTest {
+
+    private static final long TIME_LIMIT_MILLIS = 60_000;
+
+    @Test
+    void provesTheOptimumWithOneThread() {
+        provesTheOptimum(new Random(31), 1);
+    }
+
+    @Test
+    void provesTheOptimumWithSeveralThreads() {
+        provesTheOptimum(new Random(32), 4);
+    }
+
+    private static void provesTheOptimum(Random random, int nThreads) {
+        var bnb = new PSSCBranchAndBound("bnb", Long.MAX_VALUE, TIME_LIMIT_MILLIS, nThreads);
+        int improved = 0, checked = 0;
+        for (int t = 0; t < 200; t++) {
+            var instance = RandomInstances.instance(random, 18, 40);
+            var optimal = BruteForce.optimalSolution(instance);
+            if (optimal == null) continue;
+
+            var greedy = new PSSCGreedyConstructive().construct(new PSSCSolution(instance));
+            int greedyScore = greedy.getScore();
+            var result = bnb.solve(greedy);
+            assertTrue(result.optimal(), "search of instance " + t + " was not completed");
+            assertSame(instance, result.solution().getInstance());
+            assertTrue(result.solution().isCovered(), "solution of instance " + t + " is feasible");
+            assertEquals(optimal.getScore(), result.solution().getScore(), "optimum of instance " + t);
+            assertEquals(greedyScore, greedy.getScore(), "incumbent of instance " + t + " was modified");
+            if (result.solution().getScore() < greedyScore) improved++;
+
+            // Starting from an optimal solution, the search can only prove it
+            var proved = bnb.solve(optimal);
+            assertTrue(proved.optimal());
+            assertEquals(optimal.getScore(), proved.solution().getScore());
+            checked++;
+        }
+        assertTrue(checked > 100, "only " + checked + " instances were feasible");
+        assertTrue(improved > 0, "the greedy solution was optimal in every instance");
+    }
+
+    @Test
+    void reachingTheNodeLimitIsNotOptimal() {
+        var random = new Random(33);
+        var bnb = new PSSCBranchAndBound("bnb", 1, TIME_LIMIT_MILLIS, 1);
+        int truncated = 0;
+        for (int t = 0; t < 5; t++) {
+            int nSets = 300, nPoints = 400;
+            var instance = new PSSCInstance(nSets, nPoints, RandomInstances.coverage(random, nSets, nPoints, 0.02), "random");
+            var greedy = new PSSCGreedyConstructive().construct(new PSSCSolution(instance));
+            if (!greedy.isCovered()) continue;
+            var result = bnb.solve(greedy);
+            assertTrue(result.solution().isCovered());
+            assertTrue(result.solution().getScore() <= greedy.getScore());
+            if (!result.optimal()) truncated++;
+        }
+        assertTrue(truncated > 0, "every search was completed within the node limit");
+    }
+
+    @Test
+    void infeasibleIncumbentIsRejected() {
+        var instance = RandomInstances.instance(new Random(34), 10, 20);
+        var bnb = new PSSCBranchAndBound("bnb", Long.MAX_VALUE, TIME_LIMIT_MILLIS, 1);
+        var empty = new PSSCSolution(instance);
+        assertFalse(empty.isCovered());
+        assertThrows(IllegalArgumentException.class, () -> bnb.solve(empty));
+    }
+}
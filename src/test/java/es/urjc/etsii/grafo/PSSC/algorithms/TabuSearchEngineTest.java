@@ -0,0 +1,62 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.RandomInstances;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TabuSearchEngineTest {
+
+    /**
+     * Enough steps on small instances for the point weights to be halved several times
+     */
+    private static final long[] STEPS = {1, 2, 3, 10, 100, 3000};
+
+    private static List<PSSCSolution> initialSolutions(PSSCInstance instance) {
+        var greedy = new PSSCGreedyConstructive().construct(new PSSCSolution(instance));
+        var all = new PSSCSolution(instance);
+        for (int s = 0; s < instance.getnSets(); s++) {
+            all.addSet(s);
+        }
+        return List.of(greedy, all);
+    }
+
+    @Test
+    void incrementalStateMatchesARecomputation() {
+        // Without assertions only the state after each run would be checked, not the one after every step
+        assertTrue(TabuSearchEngine.class.desiredAssertionStatus(), "assertions are disabled");
+
+        var random = new Random(11);
+        var engine = new TabuSearchEngine(3);
+        int checked = 0;
+        for (int t = 0; t < 40; t++) {
+            var original = RandomInstances.instance(random, 30, 25);
+            // Reduced instances merge points, so their weights do not start at 1
+            var instance = t % 2 == 0 ? original : original.getReduction().getReducedInstance();
+            if (instance.getnSets() == 0) continue;
+
+            for (var initial : initialSolutions(instance)) {
+                if (!initial.isCovered()) continue;
+                var initialSets = initial.getChosenSets().clone();
+                int initialScore = initial.getScore();
+                for (long steps : STEPS) {
+                    String run = steps + " steps on instance " + t + " from " + initialScore + " sets";
+                    var improved = engine.improve(initial, new Random(t), steps, Long.MAX_VALUE, 0);
+                    assertTrue(engine.stateIsConsistent(), "state after " + run);
+                    assertTrue(improved.isCovered(), "solution after " + run + " is feasible");
+                    assertTrue(improved.getScore() <= initialScore, "solution after " + run + " is not worse");
+                    assertEquals(initialSets, initial.getChosenSets(), "initial solution after " + run);
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 200, "only " + checked + " runs were checked");
+    }
+}
@@ -0,0 +1,41 @@
+package es.urjc.etsii.grafo.PSSC.algorithms;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.RandomInstances;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VNSTrajectoryTest {
+
+    private static final int STEPS = 20_000;
+
+    @Test
+    void journalStaysBoundedOnPlateaus() {
+        var random = new Random(18);
+        int plateauSteps = 0;
+        for (int t = 0; t < 10; t++) {
+            var instance = RandomInstances.instance(random, 40, 20);
+            var initial = new PSSCGreedyConstructive().construct(new PSSCSolution(instance));
+            if (!initial.isCovered()) continue;
+            int initialScore = initial.getScore();
+
+            var trajectory = new VNSTrajectory(initial, new Random(t), null, Integer.MAX_VALUE);
+            trajectory.setRestoreBest(true);
+            for (int step = 0; step < STEPS; step++) {
+                trajectory.step();
+                var current = trajectory.getCurrent();
+                var best = trajectory.getBest();
+                assertTrue(current.getJournalSize() <= best.getScore(), "journal of " + current.getJournalSize()
+                        + " entries at step " + step + " of instance " + t + ", best score " + best.getScore());
+                if (current.getScore() == best.getScore()) plateauSteps++;
+            }
+            assertTrue(trajectory.getBest().isCovered());
+            assertTrue(trajectory.getBest().getScore() <= initialScore);
+        }
+        assertTrue(plateauSteps > STEPS, "only " + plateauSteps + " steps were as good as the best solution");
+    }
+}
@@ -0,0 +1,88 @@
+package es.urjc.etsii.grafo.PSSC.constructives;
+
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.RandomInstances;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PSSCGreedyConstructiveTest {
+
+    /**
+     * Solution that checks every added set has the largest gain among the unselected ones,
+     * and remembers if another set had the same gain
+     */
+    private static class GreedySolution extends PSSCSolution {
+        private boolean tied;
+
+        GreedySolution(PSSCInstance instance) {
+            super(instance);
+        }
+
+        @Override
+        public int addSet(int set) {
+            int maxGain = 0, withMaxGain = 0;
+            for (int s = 0; s < getInstance().getnSets(); s++) {
+                if (getChosenSets().contains(s)) continue;
+                int gain = getAddGain(s);
+                if (gain > maxGain) {
+                    maxGain = gain;
+                    withMaxGain = 1;
+                } else if (gain == maxGain) {
+                    withMaxGain++;
+                }
+            }
+            assertFalse(getChosenSets().contains(set), "set " + set + " is already chosen");
+            assertEquals(maxGain, getAddGain(set), "gain of added set " + set);
+            tied |= withMaxGain > 1;
+            return super.addSet(set);
+        }
+    }
+
+    private static boolean isFeasible(PSSCInstance instance) {
+        var all = new PSSCSolution(instance);
+        for (int s = 0; s < instance.getnSets(); s++) {
+            all.addSet(s);
+        }
+        return all.isCovered();
+    }
+
+    private static void checkResult(String label, GreedySolution solution, boolean feasible) {
+        assertEquals(feasible, solution.isCovered(), label + " is covered");
+        if (!feasible) return;
+        solution.getChosenSets().forEach(s -> assertFalse(solution.canRemove(s), "set " + s + " of " + label + " is redundant"));
+    }
+
+    @Test
+    void lazyGreedyMatchesTheEagerOne() {
+        var random = new Random(7);
+        int withoutTies = 0, feasibleInstances = 0;
+        for (int t = 0; t < 1000; t++) {
+            var instance = t % 2 == 0 ? RandomInstances.instance(random, 30, 40) : RandomInstances.instance(random, 8, 200);
+            boolean feasible = isFeasible(instance);
+            if (feasible) feasibleInstances++;
+
+            var eager = new GreedySolution(instance);
+            new PSSCGreedyConstructive(false).construct(eager);
+            var lazy = new GreedySolution(instance);
+            new PSSCGreedyConstructive(true).construct(lazy);
+            checkResult("eager solution of instance " + t, eager, feasible);
+            checkResult("lazy solution of instance " + t, lazy, feasible);
+
+            // Both add a set of maximum gain on every step, so they only differ when ties are broken differently.
+            // On infeasible instances the eager greedy also adds the sets without gain, the lazy one stops before.
+            if (feasible && !eager.tied && !lazy.tied) {
+                withoutTies++;
+                assertEquals(eager.getChosenSets(), lazy.getChosenSets(), "sets of instance " + t);
+                assertEquals(eager.getScore(), lazy.getScore(), "score of instance " + t);
+            }
+        }
+        assertTrue(feasibleInstances > 400, "only " + feasibleInstances + " feasible instances");
+        assertTrue(withoutTies > 80, "only " + withoutTies + " instances without ties");
+    }
+}
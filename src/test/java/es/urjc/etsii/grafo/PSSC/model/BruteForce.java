@@ -0,0 +1,52 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+/**
+ * Exact solver for tests, enumerates the subsets of sets by increasing size
+ */
+public final class BruteForce {
+
+    /**
+     * Instances with more sets take too long to enumerate
+     */
+    public static final int MAX_SETS = 20;
+
+    private BruteForce() {}
+
+    /**
+     * Find an optimal solution
+     * @param instance instance with at most {@link #MAX_SETS} sets
+     * @return optimal solution, or null if no subset of sets reaches the minimum coverage
+     */
+    public static PSSCSolution optimalSolution(PSSCInstance instance) {
+        int nSets = instance.getnSets();
+        if (nSets > MAX_SETS) {
+            throw new IllegalArgumentException("Too many sets for brute force: " + nSets);
+        }
+        for (int size = 0; size <= nSets; size++) {
+            // Gosper's hack, every mask with size bits in increasing order
+            for (long mask = (1L << size) - 1; mask < 1L << nSets; ) {
+                var solution = new PSSCSolution(instance);
+                for (int set = 0; set < nSets; set++) {
+                    if ((mask >>> set & 1) != 0) solution.addSet(set);
+                }
+                if (solution.isCovered()) {
+                    return solution;
+                }
+                if (mask == 0) break;
+                long lowest = mask & -mask, ripple = mask + lowest;
+                mask = ripple | ((mask ^ ripple) >>> 2) / lowest;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Optimal value
+     * @param instance instance with at most {@link #MAX_SETS} sets
+     * @return minimum number of sets, or {@link Integer#MAX_VALUE} if the instance is infeasible
+     */
+    public static int optimum(PSSCInstance instance) {
+        var solution = optimalSolution(instance);
+        return solution == null ? Integer.MAX_VALUE : solution.getScore();
+    }
+}
@@ -0,0 +1,91 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DominanceAnalyzerTest {
+
+    /**
+     * Dominance check of the original constructor: empty sets and sets contained in any other set are useless
+     */
+    private static BitSet allPairsUselessSets(BitSet[] coverage) {
+        var useless = new BitSet(coverage.length);
+        for (int i = 0; i < coverage.length; i++) {
+            if (coverage[i].isEmpty()) {
+                useless.add(i);
+                continue;
+            }
+            for (int j = 0; j < coverage.length; j++) {
+                if (i != j && coverage[i].containsAll(coverage[j])) {
+                    useless.add(j);
+                }
+            }
+        }
+        return useless;
+    }
+
+    private static DominanceAnalyzer analyzer(PSSCInstance instance) {
+        return new DominanceAnalyzer(instance.getCoverage(), instance.getSetOffsets(), instance.getSetPoints(),
+                instance.getPointOffsets(), instance.getPointSets());
+    }
+
+    @Test
+    void uselessSetsMatchAllPairsCheck() {
+        var random = new Random(2);
+        for (int t = 0; t < 500; t++) {
+            int nSets = 1 + random.nextInt(40), nPoints = 1 + random.nextInt(30);
+            var coverage = RandomInstances.coverage(random, nSets, nPoints, 0.05 + 0.6 * random.nextDouble());
+            var expected = allPairsUselessSets(coverage);
+            var instance = new PSSCInstance(nSets, nPoints, coverage, "random" + t);
+            assertEquals(expected, instance.getUselessSets(), "instance " + t);
+        }
+    }
+
+    @Test
+    void uselessSetsMatchAllPairsCheckOnLargerInstance() {
+        var random = new Random(3);
+        var coverage = RandomInstances.coverage(random, 3000, 200, 0.02);
+        for (int s = 0; s < 300; s++) {
+            // Subsets of other sets, so the pruned search has to find them
+            var subset = new BitSet(200);
+            for (int p : coverage[random.nextInt(coverage.length)]) {
+                if (random.nextBoolean()) subset.add(p);
+            }
+            coverage[random.nextInt(coverage.length)] = subset;
+        }
+        var instance = new PSSCInstance(coverage.length, 200, coverage, "large");
+        assertEquals(allPairsUselessSets(coverage), instance.getUselessSets());
+    }
+
+    @Test
+    void dominatedSetsKeepOneCopyOfEachSet() {
+        var random = new Random(4);
+        for (int t = 0; t < 300; t++) {
+            int nSets = 2 + random.nextInt(30), nPoints = 1 + random.nextInt(20);
+            var coverage = RandomInstances.coverage(random, nSets, nPoints, 0.1 + 0.5 * random.nextDouble());
+            for (int copies = random.nextInt(3); copies > 0; copies--) {
+                coverage[random.nextInt(nSets)] = coverage[random.nextInt(nSets)].clone();
+            }
+            var instance = new PSSCInstance(nSets, nPoints, coverage, "random" + t);
+            var dominated = analyzer(instance).findDominatedSets();
+
+            for (int j = 0; j < nSets; j++) {
+                boolean contained = false;
+                for (int i = 0; i < nSets && !contained; i++) {
+                    contained = i != j && !dominated.contains(i) && coverage[i].containsAll(coverage[j]);
+                }
+                // Removed sets are empty or contained in a kept set, and kept sets are not contained in another kept one
+                if (dominated.contains(j)) {
+                    assertTrue(coverage[j].isEmpty() || contained, "removed set " + j + " of instance " + t);
+                } else {
+                    assertTrue(!coverage[j].isEmpty() && !contained, "kept set " + j + " of instance " + t);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrLibraryTokenizerTest {
+
+    private static OrLibraryTokenizer tokenizer(String input) {
+        return new OrLibraryTokenizer(new StringReader(input), "test");
+    }
+
+    /**
+     * Reader that returns one char per read, so every token crosses a buffer refill
+     */
+    private static Reader oneCharAtATime(String input) {
+        var source = new StringReader(input);
+        return new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return source.read(buffer, offset, Math.min(length, 1));
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+
+    @Test
+    void mixedWhitespace() throws IOException {
+        String input = "  12\t-3\r\n+4\f\n\n 5\r\n\t 0 ";
+        int[] expected = {12, -3, 4, 5, 0};
+        for (var tokens : new OrLibraryTokenizer[]{tokenizer(input), new OrLibraryTokenizer(oneCharAtATime(input), "test")}) {
+            for (int value : expected) {
+                assertTrue(tokens.hasNextInt());
+                assertEquals(value, tokens.nextInt());
+            }
+            assertFalse(tokens.hasNextInt());
+            assertThrows(EOFException.class, tokens::nextInt);
+        }
+    }
+
+    @Test
+    void tokensLongerThanTheBuffer() throws IOException {
+        var input = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            input.append(i).append(i % 7 == 0 ? "\r\n" : " ");
+        }
+        var tokens = tokenizer(input.toString());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, tokens.nextInt());
+        }
+        assertFalse(tokens.hasNextInt());
+    }
+
+    @Test
+    void integerLimits() throws IOException {
+        var tokens = tokenizer("2147483647 -2147483648 0000042");
+        assertEquals(Integer.MAX_VALUE, tokens.nextInt());
+        assertEquals(Integer.MIN_VALUE, tokens.nextInt());
+        assertEquals(42, tokens.nextInt());
+
+        assertThrows(IOException.class, () -> tokenizer("2147483648").nextInt());
+        assertThrows(IOException.class, () -> tokenizer("-2147483649").nextInt());
+        assertThrows(IOException.class, () -> tokenizer("99999999999999999999").nextInt());
+    }
+
+    @Test
+    void truncatedInput() throws IOException {
+        assertThrows(EOFException.class, () -> tokenizer("").nextInt());
+        assertThrows(EOFException.class, () -> tokenizer(" \r\n\t").nextInt());
+
+        var tokens = tokenizer("7 -");
+        assertEquals(7, tokens.nextInt());
+        assertTrue(tokens.hasNextInt());
+        assertThrows(EOFException.class, tokens::nextInt);
+    }
+
+    @Test
+    void invalidTokens() throws IOException {
+        var tokens = tokenizer("1 2x 3");
+        assertEquals(1, tokens.nextInt());
+        var e = assertThrows(IOException.class, tokens::nextInt);
+        assertFalse(e instanceof EOFException, "a bad token is not the end of the input");
+
+        assertFalse(tokenizer("abc").hasNextInt());
+        assertThrows(IOException.class, () -> tokenizer("abc").nextInt());
+        assertThrows(IOException.class, () -> tokenizer("- 3").nextInt());
+        assertThrows(IOException.class, () -> tokenizer("1.5").nextInt());
+    }
+}
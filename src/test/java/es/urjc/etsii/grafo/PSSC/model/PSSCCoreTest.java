@@ -0,0 +1,156 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PSSCCoreTest {
+
+    /**
+     * Check that the core contains the sets of the solution and the cheapest sets of every point for the multipliers
+     * it was priced with, and nothing else
+     */
+    private static void checkCore(String label, PSSCCore core, PSSCSolution solution, int setsPerPoint) {
+        var instance = solution.getInstance();
+        assertSame(instance, core.getInstance());
+        int nSets = instance.getnSets();
+        double[] costs = new double[nSets];
+        PSSCLowerBound.reducedCosts(instance, core.getMultipliers(), costs);
+
+        var chosen = solution.getChosenSets();
+        for (int set : chosen) {
+            assertTrue(core.contains(set), "chosen set " + set + " is in " + label);
+        }
+
+        // Sets may tie with the last cheapest set of a point, only the required number of them has to be taken
+        boolean[] cheapest = new boolean[nSets];
+        int[] pointOffsets = instance.getPointOffsets(), pointSets = instance.getPointSets();
+        for (int p = 0; p < instance.getnPoints(); p++) {
+            int from = pointOffsets[p], to = pointOffsets[p + 1];
+            int n = Math.min(setsPerPoint, to - from);
+            if (n == 0) continue;
+            double[] rowCosts = new double[to - from];
+            for (int j = from; j < to; j++) rowCosts[j - from] = costs[pointSets[j]];
+            Arrays.sort(rowCosts);
+            double limit = rowCosts[n - 1];
+
+            int taken = 0;
+            for (int j = from; j < to; j++) {
+                int s = pointSets[j];
+                if (costs[s] < limit) {
+                    assertTrue(core.contains(s), "set " + s + " is one of the cheapest of point " + p + " in " + label);
+                }
+                if (costs[s] <= limit) {
+                    cheapest[s] = true;
+                    if (core.contains(s)) taken++;
+                }
+            }
+            assertTrue(taken >= n, label + " has " + taken + " of the " + n + " cheapest sets of point " + p);
+        }
+
+        int size = 0;
+        for (int s = 0; s < nSets; s++) {
+            if (core.contains(s)) {
+                size++;
+                assertTrue(chosen.contains(s) || cheapest[s], "set " + s + " should not be in " + label);
+            }
+        }
+        assertEquals(size, core.size());
+        for (int i = 0; i < core.size(); i++) {
+            assertTrue(core.contains(core.getSet(i)));
+            if (i > 0) assertTrue(core.getSet(i - 1) < core.getSet(i));
+        }
+
+        // Point index rows are the instance rows restricted to the core
+        int[] coreOffsets = core.getPointOffsets(), coreSets = core.getPointSets();
+        for (int p = 0; p < instance.getnPoints(); p++) {
+            int[] expected = Arrays.stream(pointSets, pointOffsets[p], pointOffsets[p + 1]).filter(core::contains).toArray();
+            assertEquals(Arrays.toString(expected), Arrays.toString(Arrays.copyOfRange(coreSets, coreOffsets[p], coreOffsets[p + 1])),
+                    "core sets of point " + p + " in " + label);
+        }
+    }
+
+    /**
+     * Feasible solution unrelated to the greedy one: random sets are added until the coverage is reached
+     */
+    private static PSSCSolution randomSolution(PSSCInstance instance, Random random) {
+        var solution = new PSSCSolution(instance);
+        int[] order = random.ints(0, instance.getnSets()).distinct().limit(instance.getnSets()).toArray();
+        for (int s : order) {
+            if (solution.isCovered()) break;
+            solution.addSet(s);
+        }
+        return solution;
+    }
+
+    @Test
+    void largeCoresTakeEverySetCoveringAPoint() {
+        var coverage = new BitSet[5];
+        for (int s = 0; s < coverage.length; s++) coverage[s] = new BitSet(6);
+        coverage[0].addAll(List.of(0, 1, 2));
+        coverage[1].addAll(List.of(2, 3));
+        coverage[2].addAll(List.of(3, 4, 5));
+        coverage[3].addAll(List.of(0, 5));
+        var instance = new PSSCInstance(5, 6, coverage, "core");
+        var solution = new PSSCSolution(instance);
+        solution.addSet(0);
+        solution.addSet(2);
+
+        // No point is covered by more than 2 sets, and set 4 is empty
+        var core = PSSCCore.build(solution, 2);
+        for (int s = 0; s < 4; s++) assertTrue(core.contains(s));
+        assertFalse(core.contains(4));
+        checkCore("core of 2 sets per point", core, solution, 2);
+
+        var single = PSSCCore.build(solution, 1);
+        checkCore("core of 1 set per point", single, solution, 1);
+        checkCore("repriced core of 1 set per point", single.reprice(solution), solution, 1);
+
+        // The empty set enters the core when it is part of the solution
+        solution.addSet(4);
+        assertTrue(core.reprice(solution).contains(4));
+    }
+
+    @Test
+    void coreKeepsTheCheapestSetsWhenRepriced() {
+        var random = new Random(22);
+        int excluded = 0;
+        for (int t = 0; t < 30; t++) {
+            var instance = RandomInstances.instance(random, 60, 40);
+            var greedy = new PSSCGreedyConstructive().construct(new PSSCSolution(instance));
+            if (!greedy.isCovered()) continue;
+            int setsPerPoint = 1 + t % 3;
+
+            var core = PSSCCore.build(greedy, setsPerPoint);
+            checkCore("core of instance " + t, core, greedy, setsPerPoint);
+            excluded += instance.getnSets() - core.size();
+
+            // Repricing for another solution keeps its sets and the new cheapest ones, with the same sets per point
+            var other = randomSolution(instance, random);
+            var repriced = core.reprice(other);
+            checkCore("repriced core of instance " + t, repriced, other, setsPerPoint);
+            checkCore("core of instance " + t + " repriced twice", repriced.reprice(greedy), greedy, setsPerPoint);
+        }
+        assertTrue(excluded > 0, "every core contains every set");
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        var instance = RandomInstances.instance(new Random(23), 10, 10);
+        var solution = new PSSCSolution(instance);
+        assertThrows(IllegalArgumentException.class, () -> PSSCCore.build(solution, 0));
+        var core = PSSCCore.build(solution, 1);
+        var other = new PSSCSolution(RandomInstances.instance(new Random(23), 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> core.reprice(other));
+    }
+}
@@ -0,0 +1,127 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PSSCInstanceCacheTest {
+
+    private static final String NAME = "scp-test.txt";
+
+    /**
+     * Random instance rebuilt with some useless sets and a known dominance time, so both are checked
+     */
+    private static PSSCInstance instance(Random random) {
+        var parsed = RandomInstances.instance(random, 150, 100);
+        var useless = new BitSet(parsed.getnSets());
+        for (int s = 0; s < parsed.getnSets(); s += 1 + random.nextInt(5)) {
+            useless.add(s);
+        }
+        return new PSSCInstance(NAME, parsed.getnSets(), parsed.getnPoints(), parsed.getSetOffsets(), parsed.getSetPoints(),
+                parsed.getPointOffsets(), parsed.getPointSets(), useless, 1234);
+    }
+
+    private static byte[] hash(String content) {
+        return PSSCInstanceCache.hash(content.toCharArray(), content.length());
+    }
+
+    private static void deleteRecursively(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void readReturnsTheWrittenInstance() throws IOException {
+        var folder = Files.createTempDirectory("pssc-cache");
+        try {
+            var cache = new PSSCInstanceCache(folder);
+            var random = new Random(4);
+            for (int t = 0; t < 20; t++) {
+                var instance = instance(random);
+                byte[] hash = hash("instance " + t);
+                assertNull(cache.read(NAME, hash), "instance " + t + " is not cached yet");
+                cache.write(NAME, hash, instance);
+
+                var cached = cache.read(NAME, hash);
+                assertNotNull(cached);
+                assertEquals(NAME, cached.getId());
+                assertEquals(instance.getnSets(), cached.getnSets());
+                assertEquals(instance.getnPoints(), cached.getnPoints());
+                assertArrayEquals(instance.getSetOffsets(), cached.getSetOffsets());
+                assertArrayEquals(instance.getSetPoints(), cached.getSetPoints());
+                assertArrayEquals(instance.getPointOffsets(), cached.getPointOffsets());
+                assertArrayEquals(instance.getPointSets(), cached.getPointSets());
+                assertEquals(instance.getUselessSets(), cached.getUselessSets());
+                assertEquals(instance.getDominanceMillis(), cached.getDominanceMillis());
+                assertEquals(instance.getMinCoveredRequired(), cached.getMinCoveredRequired());
+            }
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+
+    @Test
+    void changedHashIsNotRead() throws IOException {
+        var folder = Files.createTempDirectory("pssc-cache");
+        try {
+            var cache = new PSSCInstanceCache(folder);
+            byte[] hash = hash("original");
+            cache.write(NAME, hash, instance(new Random(5)));
+
+            // A different source gets a different file
+            assertNull(cache.read(NAME, hash("modified")));
+
+            // Same file name, the hash stored in the header does not match
+            byte[] sameFile = hash.clone();
+            sameFile[sameFile.length - 1] ^= 1;
+            assertEquals(cache.pathFor(NAME, hash), cache.pathFor(NAME, sameFile));
+            assertNull(cache.read(NAME, sameFile));
+
+            assertNotNull(cache.read(NAME, hash));
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+
+    @Test
+    void truncatedFileIsNotRead() throws IOException {
+        var folder = Files.createTempDirectory("pssc-cache");
+        try {
+            var cache = new PSSCInstanceCache(folder);
+            byte[] hash = hash("original");
+            cache.write(NAME, hash, instance(new Random(6)));
+            var path = cache.pathFor(NAME, hash);
+            long size = Files.size(path);
+
+            for (long length : new long[]{size - 1, size - 8, size / 2, 40, 0}) {
+                try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(length);
+                }
+                assertNull(cache.read(NAME, hash), "file truncated to " + length + " bytes");
+            }
+
+            // A cached file is written again over the invalid one
+            cache.write(NAME, hash, instance(new Random(6)));
+            assertEquals(size, Files.size(path));
+            assertNotNull(cache.read(NAME, hash));
+        } finally {
+            deleteRecursively(folder);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PSSCInstanceImporterTest {
+
+    private static PSSCInstance load(String content) throws IOException {
+        return new PSSCInstanceImporter().importInstance(new BufferedReader(new StringReader(content)), "test");
+    }
+
+    @Test
+    void parsesTheAdjacency() throws IOException {
+        // 4 points, 3 sets, rows wrapping lines with mixed whitespace and line endings
+        var instance = load(" 4 3\r\n 1 1 1\r\n2\n1\t3\r\n1 2\n3 1 2\n 3\n\t1\r\n3\n");
+        assertEquals("test", instance.getId());
+        assertEquals(4, instance.getnPoints());
+        assertEquals(3, instance.getnSets());
+        assertArrayEquals(new int[]{0, 2, 3, 6, 7}, instance.getPointOffsets());
+        assertArrayEquals(new int[]{0, 2, 1, 0, 1, 2, 2}, instance.getPointSets());
+        assertArrayEquals(new int[]{0, 2, 4, 7}, instance.getSetOffsets());
+        assertArrayEquals(new int[]{0, 2, 1, 2, 0, 2, 3}, instance.getSetPoints());
+    }
+
+    @Test
+    void repeatedSetsOfAPointAreCountedOnce() throws IOException {
+        // Point 0 lists set 2 three times, unsorted
+        var instance = load("2 2\n1 1\n4 2 1 2 2\n1 2\n");
+        assertArrayEquals(new int[]{0, 2, 3}, instance.getPointOffsets());
+        assertArrayEquals(new int[]{0, 1, 1}, instance.getPointSets());
+        assertEquals(1, instance.setDegree(0));
+        assertEquals(2, instance.setDegree(1));
+    }
+
+    @Test
+    void duplicatePointRowsAreKept() throws IOException {
+        // Points 0 and 1 have the same row, both are points of the instance
+        var instance = load("3 3\n1 1 1\n2 1 3\n2 3 1\n1 2\n");
+        assertEquals(3, instance.getnPoints());
+        assertArrayEquals(new int[]{0, 2, 4, 5}, instance.getPointOffsets());
+        assertArrayEquals(new int[]{0, 2, 0, 2, 1}, instance.getPointSets());
+        assertEquals(2, instance.setDegree(0));
+        assertEquals(2, instance.setDegree(2));
+    }
+
+    @Test
+    void invalidSetIdsAreRejected() {
+        for (String invalid : new String[]{"0", "4", "-1"}) {
+            var e = assertThrows(IOException.class, () -> load("2 3\n1 1 1\n1 1\n2 2 " + invalid + "\n"));
+            assertTrue(e.getMessage().contains("Invalid set " + invalid + " at point 1"), e.getMessage());
+        }
+    }
+
+    @Test
+    void truncatedInputIsRejected() {
+        // Header, cost vector, missing point row, point row cut in the middle
+        for (String truncated : new String[]{"", "3", "3 2\n1", "2 2\n1 1\n1 1", "2 2\n1 1\n1 1\n3 1 2"}) {
+            assertThrows(IOException.class, () -> load(truncated), "input '" + truncated + "'");
+        }
+        var e = assertThrows(IOException.class, () -> load("2 2\n1 1\n1 1\n"));
+        assertTrue(e.getMessage().contains("Unexpected EOF at point 1"), e.getMessage());
+    }
+}
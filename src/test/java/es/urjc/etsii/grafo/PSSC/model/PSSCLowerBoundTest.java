@@ -0,0 +1,120 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PSSCLowerBoundTest {
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void boundDoesNotExceedTheOptimum() {
+        var random = new Random(21);
+        int tight = 0, checked = 0;
+        for (int t = 0; t < 300; t++) {
+            var instance = RandomInstances.instance(random, 16, 30);
+            int optimum = BruteForce.optimum(instance);
+            if (optimum == Integer.MAX_VALUE) continue;
+            int bound = PSSCLowerBound.compute(instance);
+            assertTrue(bound >= 0 && bound <= optimum, "bound " + bound + " of instance " + t + " with optimum " + optimum);
+            if (bound == optimum) tight++;
+            checked++;
+        }
+        assertTrue(checked > 100, "only " + checked + " instances were feasible");
+        // Not a correctness requirement, but a bound that is never tight is probably computing nothing
+        assertTrue(tight > checked / 4, "bound was tight in " + tight + " of " + checked + " instances");
+    }
+
+    @Test
+    void boundOfReducedInstancesDoesNotExceedTheirOptimum() {
+        var random = new Random(22);
+        int weighted = 0;
+        for (int t = 0; t < 300; t++) {
+            var reduced = RandomInstances.instance(random, 18, 30).getReduction().getReducedInstance();
+            int optimum = BruteForce.optimum(reduced);
+            if (optimum == Integer.MAX_VALUE) continue;
+            int bound = PSSCLowerBound.compute(reduced);
+            assertTrue(bound >= 0 && bound <= optimum, "bound " + bound + " of reduced instance " + t + " with optimum " + optimum);
+            for (int p = 0; p < reduced.getnPoints(); p++) {
+                if (reduced.pointWeight(p) > 1) {
+                    weighted++;
+                    break;
+                }
+            }
+        }
+        assertTrue(weighted > 20, "only " + weighted + " reduced instances had merged points");
+    }
+
+    @Test
+    void partialBoundDoesNotExceedTheSubproblemOptimum() {
+        var random = new Random(23);
+        int checked = 0;
+        for (int t = 0; t < 400; t++) {
+            var instance = RandomInstances.instance(random, 14, 30);
+            int nSets = instance.getnSets(), nPoints = instance.getnPoints();
+            int[] setOffsets = instance.getSetOffsets(), setPoints = instance.getSetPoints();
+
+            // A node of the search: some sets chosen, some discarded, the rest still free
+            var covered = new long[instance.getWordsPerSet()];
+            var columns = new boolean[nSets];
+            int coveredWeight = 0, nColumns = 0;
+            for (int s = 0; s < nSets; s++) {
+                int choice = random.nextInt(4);
+                if (choice == 0) {
+                    for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                        int p = setPoints[i];
+                        if ((covered[p >>> 6] & 1L << p) == 0) coveredWeight += instance.pointWeight(p);
+                        covered[p >>> 6] |= 1L << p;
+                    }
+                } else if (choice > 1) {
+                    columns[s] = true;
+                    nColumns++;
+                }
+            }
+            int target = instance.getMinCoveredRequired() - coveredWeight;
+            if (target <= 0) continue;
+            int optimum = subproblemOptimum(instance, columns, covered, target);
+            if (optimum == Integer.MAX_VALUE) continue;
+
+            var u = PSSCLowerBound.initialMultipliers(instance);
+            double l = PSSCLowerBound.optimize(instance, u, columns, covered, target, nColumns, 200);
+            assertTrue((int) Math.ceil(l - EPSILON) <= optimum, "partial bound " + l + " of instance " + t + " with optimum " + optimum);
+            for (int p = 0; p < nPoints; p++) {
+                if ((covered[p >>> 6] & 1L << p) != 0) assertEquals(0, u[p], 0, "multiplier of covered point " + p);
+            }
+            checked++;
+        }
+        assertTrue(checked > 100, "only " + checked + " subproblems were checked");
+    }
+
+    /**
+     * Fewest free sets that cover {@code target} more weight of the uncovered points, by enumeration
+     */
+    private static int subproblemOptimum(PSSCInstance instance, boolean[] columns, long[] covered, int target) {
+        int nSets = instance.getnSets();
+        int[] setOffsets = instance.getSetOffsets(), setPoints = instance.getSetPoints();
+        int best = Integer.MAX_VALUE;
+        for (long mask = 0; mask < 1L << nSets; mask++) {
+            int size = Long.bitCount(mask);
+            if (size >= best) continue;
+            var reached = covered.clone();
+            int weight = 0;
+            boolean allowed = true;
+            for (int s = 0; s < nSets && allowed; s++) {
+                if ((mask >>> s & 1) == 0) continue;
+                allowed = columns[s];
+                for (int i = setOffsets[s]; i < setOffsets[s + 1]; i++) {
+                    int p = setPoints[i];
+                    if ((reached[p >>> 6] & 1L << p) == 0) weight += instance.pointWeight(p);
+                    reached[p >>> 6] |= 1L << p;
+                }
+            }
+            if (allowed && weight >= target) best = size;
+        }
+        return best;
+    }
+}
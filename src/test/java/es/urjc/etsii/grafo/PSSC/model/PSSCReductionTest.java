@@ -0,0 +1,70 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PSSCReductionTest {
+
+    @Test
+    void reductionKeepsTheOptimalValue() {
+        var random = new Random(11);
+        int reducedSome = 0;
+        for (int t = 0; t < 400; t++) {
+            var instance = RandomInstances.instance(random, 14, 16);
+            int optimum = BruteForce.optimum(instance);
+            if (optimum == Integer.MAX_VALUE) continue;
+            var reduction = instance.getReduction();
+            var reduced = reduction.getReducedInstance();
+            assertTrue(reduced.getnSets() <= instance.getnSets() && reduced.getnPoints() <= instance.getnPoints());
+            if (reduced.getnSets() < instance.getnSets() || reduced.getnPoints() < instance.getnPoints()) reducedSome++;
+
+            var reducedOptimal = BruteForce.optimalSolution(reduced);
+            assertEquals(optimum, reducedOptimal.getScore() + reduction.getForcedSets().length, "optimum of instance " + t);
+
+            // The lifted solution is optimal, and contains the forced sets and the original ids of the reduced ones
+            var lifted = reduction.lift(reducedOptimal);
+            assertSame(instance, lifted.getInstance());
+            assertTrue(lifted.isCovered(), "lifted solution of instance " + t + " is feasible");
+            assertEquals(optimum, lifted.getScore());
+            var expected = new BitSet(instance.getnSets());
+            for (int set : reduction.getForcedSets()) expected.add(set);
+            for (int set : reducedOptimal.getChosenSets()) expected.add(reduction.getOriginalSetId(set));
+            assertEquals(expected, lifted.getChosenSets());
+        }
+        assertTrue(reducedSome > 100, "only " + reducedSome + " instances were reduced");
+    }
+
+    @Test
+    void liftedSolutionsKeepTheirScore() {
+        var random = new Random(12);
+        int checked = 0;
+        for (int t = 0; t < 200; t++) {
+            var instance = RandomInstances.instance(random, 60, 80);
+            var reduction = instance.getReduction();
+            var reduced = reduction.getReducedInstance();
+
+            // Coverage of a reduced point counts for every original point merged into it
+            long weight = 0;
+            for (int p = 0; p < reduced.getnPoints(); p++) weight += reduced.pointWeight(p);
+            assertTrue(weight <= instance.getnPoints());
+
+            // When the forced sets are enough, as in PSSCReducedAlgorithm, the reduced solution is empty;
+            // without sets left the instance cannot be covered and the empty solution is skipped below
+            var solution = reduced.getMinCoveredRequired() == 0 || reduced.getnSets() == 0 ? new PSSCSolution(reduced)
+                    : new PSSCGreedyConstructive().construct(new PSSCSolution(reduced));
+            if (!solution.isCovered()) continue;
+            var lifted = reduction.lift(solution);
+            assertTrue(lifted.isCovered(), "lifted greedy solution of instance " + t + " is feasible");
+            assertEquals(solution.getScore() + reduction.getForcedSets().length, lifted.getScore());
+            checked++;
+        }
+        assertTrue(checked > 100, "only " + checked + " lifted solutions were checked");
+    }
+}
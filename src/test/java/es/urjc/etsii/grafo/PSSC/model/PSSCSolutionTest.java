@@ -0,0 +1,189 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PSSCSolutionTest {
+
+    /**
+     * Add or remove a random set
+     * @return number of points that changed from uncovered to covered or the other way around
+     */
+    private static int randomChange(PSSCSolution solution, Random random) {
+        int set = random.nextInt(solution.getInstance().getnSets());
+        return solution.getChosenSets().contains(set) ? solution.removeSet(set) : solution.addSet(set);
+    }
+
+    /**
+     * Number of chosen sets covering each point, computed from scratch
+     */
+    private static int[] coverCounts(PSSCSolution solution) {
+        var instance = solution.getInstance();
+        int[] counts = new int[instance.getnPoints()];
+        for (int set : solution.getChosenSets()) {
+            instance.getCoveredPoints(set).forEach(p -> counts[p]++);
+        }
+        return counts;
+    }
+
+    @Test
+    void coveredCountersMatchRecomputation() {
+        var random = new Random(5);
+        for (int t = 0; t < 200; t++) {
+            var instance = RandomInstances.instance(random, 30, 40);
+            var solution = new PSSCSolution(instance);
+            int previousCovered = 0;
+            for (int step = 0; step < 100; step++) {
+                int changed = randomChange(solution, random);
+
+                int[] counts = coverCounts(solution);
+                int covered = 0, once = 0;
+                for (int p = 0; p < counts.length; p++) {
+                    assertEquals(counts[p], solution.getCoverCount(p), "cover count of point " + p);
+                    if (counts[p] > 0) covered++;
+                    if (counts[p] == 1) once++;
+                }
+                assertEquals(covered, solution.getCoveredCount(), "covered points");
+                assertEquals(once, solution.getCoveredOnceCount(), "points covered once");
+                assertEquals(covered, solution.coveredPoints().size(), "covered points bitset");
+                assertEquals(Math.abs(covered - previousCovered), changed, "points changed by the move");
+                assertEquals(covered >= solution.minCoveredRequired(), solution.isCovered(), "feasibility");
+                assertEquals(covered - solution.minCoveredRequired(), solution.slack(), "slack");
+                assertEquals(covered / (double) solution.minCoveredRequired(), solution.coverage(), 1e-12, "coverage ratio");
+                previousCovered = covered;
+            }
+        }
+    }
+
+    @Test
+    void addGainAndDropLossMatchRecomputation() {
+        var random = new Random(7);
+        for (int t = 0; t < 200; t++) {
+            var instance = RandomInstances.instance(random, 30, 40);
+            var solution = new PSSCSolution(instance);
+            for (int step = 0; step < 60; step++) {
+                randomChange(solution, random);
+
+                int[] counts = coverCounts(solution);
+                for (int set = 0; set < instance.getnSets(); set++) {
+                    boolean chosen = solution.getChosenSets().contains(set);
+                    int[] gainAndLoss = new int[2];
+                    instance.getCoveredPoints(set).forEach(p -> {
+                        if (counts[p] == 0) gainAndLoss[0]++;
+                        if (chosen && counts[p] == 1) gainAndLoss[1]++;
+                    });
+                    assertEquals(gainAndLoss[0], solution.getAddGain(set), "add gain of set " + set);
+                    assertEquals(gainAndLoss[1], solution.getDropLoss(set), "drop loss of set " + set);
+                }
+            }
+        }
+    }
+
+    @Test
+    void removalChecksMatchTheMove() {
+        var random = new Random(8);
+        for (int t = 0; t < 200; t++) {
+            var instance = RandomInstances.instance(random, 30, 40);
+            var solution = new PSSCSolution(instance);
+            for (int step = 0; step < 60; step++) {
+                randomChange(solution, random);
+                for (int set : solution.getChosenSets().stream().mapToInt(Integer::intValue).toArray()) {
+                    int covered = solution.getCoveredCount(), loss = solution.getDropLoss(set);
+                    boolean canRemove = solution.canRemove(set);
+                    assertEquals(covered - instance.setDegree(set) >= solution.minCoveredRequired(),
+                            solution.canRemoveAllPoints(set), "drop rule of set " + set);
+
+                    assertEquals(loss, solution.removeSet(set), "points uncovered by removing set " + set);
+                    assertEquals(canRemove, solution.isCovered(), "feasibility after removing set " + set);
+                    solution.addSet(set);
+                    assertEquals(covered, solution.getCoveredCount());
+                }
+            }
+        }
+    }
+
+    private static void assertSameState(PSSCSolution expected, PSSCSolution actual) {
+        var instance = expected.getInstance();
+        assertEquals(expected.getChosenSets(), actual.getChosenSets(), "chosen sets");
+        assertEquals(expected.getCoveredCount(), actual.getCoveredCount(), "covered points");
+        assertEquals(expected.getCoveredOnceCount(), actual.getCoveredOnceCount(), "points covered once");
+        for (int p = 0; p < instance.getnPoints(); p++) {
+            assertEquals(expected.getCoverCount(p), actual.getCoverCount(p), "cover count of point " + p);
+        }
+        for (int set = 0; set < instance.getnSets(); set++) {
+            assertEquals(expected.getAddGain(set), actual.getAddGain(set), "add gain of set " + set);
+            assertEquals(expected.getDropLoss(set), actual.getDropLoss(set), "drop loss of set " + set);
+        }
+    }
+
+    @Test
+    void rollbackRestoresNestedCheckpoints() {
+        var random = new Random(9);
+        for (int t = 0; t < 200; t++) {
+            var instance = RandomInstances.instance(random, 30, 40);
+            var solution = new PSSCSolution(instance);
+            for (int step = random.nextInt(20); step > 0; step--) {
+                randomChange(solution, random);
+            }
+
+            int outer = solution.checkpoint();
+            var atOuter = solution.cloneSolution();
+            for (int step = random.nextInt(20); step > 0; step--) {
+                randomChange(solution, random);
+            }
+            int inner = solution.checkpoint();
+            var atInner = solution.cloneSolution();
+            for (int step = random.nextInt(20); step > 0; step--) {
+                randomChange(solution, random);
+                // Adding a chosen set again is not a change, and must not be undone
+                solution.addSet(solution.getChosenSets().isEmpty() ? 0 : solution.getChosenSets().iterator().next());
+            }
+
+            solution.rollback(inner);
+            assertSameState(atInner, solution);
+            assertEquals(inner, solution.getJournalSize());
+            solution.rollback(outer);
+            assertSameState(atOuter, solution);
+            assertEquals(outer, solution.getJournalSize());
+
+            solution.releaseCheckpoints();
+            assertEquals(0, solution.getJournalSize());
+            randomChange(solution, random);
+            assertEquals(0, solution.getJournalSize(), "changes are not recorded without checkpoints");
+        }
+    }
+
+    @Test
+    void rollbackRejectsInvalidCheckpoints() {
+        var random = new Random(10);
+        var solution = new PSSCSolution(RandomInstances.instance(random, 30, 40));
+        assertThrows(IllegalArgumentException.class, () -> solution.rollback(0));
+        int checkpoint = solution.checkpoint();
+        randomChange(solution, random);
+        assertThrows(IllegalArgumentException.class, () -> solution.rollback(checkpoint + 2));
+        assertThrows(IllegalArgumentException.class, () -> solution.rollback(-1));
+        solution.rollback(checkpoint);
+        assertEquals(0, solution.getScore());
+    }
+
+    @Test
+    void copiesHaveIndependentCounters() {
+        var random = new Random(6);
+        var instance = RandomInstances.instance(random, 30, 40);
+        var solution = new PSSCSolution(instance);
+        for (int step = 0; step < 20; step++) {
+            randomChange(solution, random);
+        }
+        var copy = solution.cloneSolution();
+        int covered = solution.getCoveredCount();
+        for (int step = 0; step < 50; step++) {
+            randomChange(copy, random);
+        }
+        assertEquals(covered, solution.getCoveredCount());
+        assertEquals(copy.coveredPoints().size(), copy.getCoveredCount());
+    }
+}
@@ -0,0 +1,54 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+
+import java.util.Random;
+
+/**
+ * Small random instances for tests. Some sets are empty or copies of other sets, as in the OR-Library instances.
+ */
+public final class RandomInstances {
+
+    private RandomInstances() {}
+
+    /**
+     * Random coverage, each set covers each point with the given probability
+     * @param random random source
+     * @param nSets number of sets
+     * @param nPoints number of points
+     * @param density probability of a set covering a point
+     * @return points covered by each set
+     */
+    public static BitSet[] coverage(Random random, int nSets, int nPoints, double density) {
+        var coverage = new BitSet[nSets];
+        for (int s = 0; s < nSets; s++) {
+            coverage[s] = new BitSet(nPoints);
+            for (int p = 0; p < nPoints; p++) {
+                if (random.nextDouble() < density) {
+                    coverage[s].add(p);
+                }
+            }
+        }
+        if (nSets > 1 && random.nextBoolean()) {
+            coverage[random.nextInt(nSets)] = coverage[random.nextInt(nSets)].clone();
+        }
+        if (random.nextInt(4) == 0) {
+            coverage[random.nextInt(nSets)] = new BitSet(nPoints);
+        }
+        return coverage;
+    }
+
+    /**
+     * Random instance with the default minimum coverage
+     * @param random random source
+     * @param maxSets maximum number of sets, at least 2
+     * @param maxPoints maximum number of points, at least 1
+     * @return new instance
+     */
+    public static PSSCInstance instance(Random random, int maxSets, int maxPoints) {
+        int nSets = 2 + random.nextInt(maxSets - 1);
+        int nPoints = 1 + random.nextInt(maxPoints);
+        double density = 0.05 + 0.5 * random.nextDouble();
+        return new PSSCInstance(nSets, nPoints, coverage(random, nSets, nPoints, density), "random");
+    }
+}
@@ -0,0 +1,132 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SetCoverageTest {
+
+    private static final int N_POINTS = 300;
+
+    /**
+     * Sorted points of a set, stored in the middle of a larger CSR array so rows that do not start at 0 are covered
+     */
+    private record Row(int[] points, int from, int to) {
+        static Row of(int... sortedPoints) {
+            int[] points = new int[sortedPoints.length + 6];
+            points[0] = 7;
+            points[1] = 3;
+            points[2] = 1;
+            System.arraycopy(sortedPoints, 0, points, 3, sortedPoints.length);
+            points[points.length - 3] = 0;
+            points[points.length - 2] = N_POINTS - 1;
+            points[points.length - 1] = 5;
+            return new Row(points, 3, 3 + sortedPoints.length);
+        }
+    }
+
+    private static List<SetCoverage> containers(Row row) {
+        var containers = new ArrayList<SetCoverage>();
+        containers.add(new SparseSetCoverage(row.points(), row.from(), row.to()));
+        containers.add(SetCoverage.of(row.points(), row.from(), row.to()));
+        if (row.to() > row.from()) {
+            int runs = 1;
+            for (int i = row.from() + 1; i < row.to(); i++) {
+                if (row.points()[i] != row.points()[i - 1] + 1) runs++;
+            }
+            containers.add(new DenseSetCoverage(row.points(), row.from(), row.to()));
+            containers.add(new RunSetCoverage(row.points(), row.from(), row.to(), runs));
+        }
+        return containers;
+    }
+
+    /**
+     * Compare every container built for the given points with a reference bitset
+     */
+    private static void check(String name, int... sortedPoints) {
+        var reference = new BitSet(N_POINTS);
+        for (int p : sortedPoints) reference.add(p);
+        var row = Row.of(sortedPoints);
+
+        for (var coverage : containers(row)) {
+            String label = name + " as " + coverage;
+            assertEquals(reference.size(), coverage.size(), "size of " + label);
+            for (int p = 0; p < N_POINTS; p++) {
+                assertEquals(reference.contains(p), coverage.contains(p), "point " + p + " of " + label);
+            }
+            var visited = new ArrayList<Integer>();
+            coverage.forEach(visited::add);
+            assertEquals(new ArrayList<>(reference), visited, "iteration order of " + label);
+        }
+    }
+
+    @Test
+    void edgeCases() {
+        check("empty set");
+        check("first point", 0);
+        check("last point", N_POINTS - 1);
+        check("single point in a word", 100);
+        check("all points", IntStream.range(0, N_POINTS).toArray());
+        check("run across the first word boundary", 60, 61, 62, 63, 64, 65, 66, 67);
+        check("runs ending and starting at word boundaries", 63, 64, 127, 128, 129, 130, 191, 192);
+        check("runs of whole words", IntStream.concat(IntStream.range(64, 128), IntStream.range(192, 256)).toArray());
+        check("run up to the last point", IntStream.range(N_POINTS - 10, N_POINTS).toArray());
+        check("first and last point", 0, N_POINTS - 1);
+        check("scattered points", 0, 2, 65, 66, 200, N_POINTS - 1);
+    }
+
+    @Test
+    void randomSets() {
+        var random = new Random(25);
+        for (int t = 0; t < 500; t++) {
+            // Sparse, dense and clustered sets
+            var points = new BitSet(N_POINTS);
+            switch (t % 3) {
+                case 0 -> random.ints(random.nextInt(10), 0, N_POINTS).forEach(points::add);
+                case 1 -> random.ints(random.nextInt(N_POINTS), 0, N_POINTS).forEach(points::add);
+                default -> {
+                    for (int r = random.nextInt(5); r >= 0; r--) {
+                        int start = random.nextInt(N_POINTS);
+                        int end = Math.min(N_POINTS, start + 1 + random.nextInt(40));
+                        for (int p = start; p < end; p++) points.add(p);
+                    }
+                }
+            }
+            check("random set " + t, points.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    @Test
+    void representationFollowsTheDensity() {
+        var all = Row.of(IntStream.range(0, N_POINTS).toArray());
+        assertTrue(SetCoverage.of(all.points(), all.from(), all.to()) instanceof RunSetCoverage);
+        var everyOther = Row.of(IntStream.range(0, N_POINTS / 2).map(p -> 2 * p).toArray());
+        assertTrue(SetCoverage.of(everyOther.points(), everyOther.from(), everyOther.to()) instanceof DenseSetCoverage);
+        var scattered = Row.of(0, 150, N_POINTS - 1);
+        assertTrue(SetCoverage.of(scattered.points(), scattered.from(), scattered.to()) instanceof SparseSetCoverage);
+    }
+
+    @Test
+    void instanceCoverageMatchesItsSets() {
+        var random = new Random(26);
+        for (int t = 0; t < 100; t++) {
+            int nSets = 1 + random.nextInt(30), nPoints = 1 + random.nextInt(200);
+            var coverage = RandomInstances.coverage(random, nSets, nPoints, random.nextDouble());
+            var instance = new PSSCInstance(nSets, nPoints, coverage, "random");
+            for (int s = 0; s < nSets; s++) {
+                var covered = instance.getCoveredPoints(s);
+                assertEquals(coverage[s].size(), covered.size(), "size of set " + s);
+                for (int p = 0; p < nPoints; p++) {
+                    assertEquals(coverage[s].contains(p), covered.contains(p), "point " + p + " of set " + s);
+                }
+            }
+        }
+    }
+}
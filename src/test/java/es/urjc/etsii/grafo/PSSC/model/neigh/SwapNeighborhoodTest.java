@@ -0,0 +1,120 @@
+package es.urjc.etsii.grafo.PSSC.model.neigh;
+
+import es.urjc.etsii.grafo.PSSC.constructives.PSSCGreedyConstructive;
+import es.urjc.etsii.grafo.PSSC.model.PSSCCore;
+import es.urjc.etsii.grafo.PSSC.model.PSSCInstance;
+import es.urjc.etsii.grafo.PSSC.model.PSSCSolution;
+import es.urjc.etsii.grafo.PSSC.model.RandomInstances;
+import es.urjc.etsii.grafo.util.collections.BitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SwapNeighborhoodTest {
+
+    @Test
+    void movesMatchTheAllPairsCheck() {
+        var random = new Random(8);
+        int moves = 0;
+        for (int t = 0; t < 300; t++) {
+            // Few points, so many sets are subsets of others
+            var instance = RandomInstances.instance(random, 20, 12);
+            var solution = randomSolution(instance, random);
+            moves += checkSwaps(solution, "instance " + t);
+        }
+        assertTrue(moves > 500, "only " + moves + " swaps were checked");
+    }
+
+    @Test
+    void coreMovesMatchTheAllPairsCheck() {
+        var random = new Random(9);
+        int moves = 0, excluded = 0;
+        for (int t = 0; t < 300; t++) {
+            var instance = RandomInstances.instance(random, 30, 12);
+            var greedy = new PSSCGreedyConstructive().construct(new PSSCSolution(instance));
+            if (!greedy.isCovered()) continue;
+            var core = PSSCCore.build(greedy, 1 + random.nextInt(2));
+            excluded += instance.getnSets() - core.size();
+
+            var solution = randomSolution(instance, random);
+            solution.setCore(core);
+            moves += checkSwaps(solution, "core of instance " + t);
+        }
+        assertTrue(moves > 500, "only " + moves + " swaps were checked");
+        assertTrue(excluded > 0, "every core contained every set");
+    }
+
+    private static PSSCSolution randomSolution(PSSCInstance instance, Random random) {
+        var solution = new PSSCSolution(instance);
+        for (int s = 0; s < instance.getnSets(); s++) {
+            if (random.nextInt(3) == 0) solution.addSet(s);
+        }
+        return solution;
+    }
+
+    /**
+     * Compare every exploration of the neighborhood with the swaps found by checking all pairs of sets
+     * @return number of feasible swaps
+     */
+    private static int checkSwaps(PSSCSolution solution, String name) {
+        long[] expected = allPairs(solution);
+
+        var neighborhood = new SwapNeighborhood();
+        var packed = new PackedMoveList();
+        assertEquals(expected.length, neighborhood.explorePacked(solution, packed), "packed swaps of " + name);
+        assertEquals(Arrays.toString(expected), Arrays.toString(toArray(packed)), "packed swaps of " + name);
+        assertEquals(expected.length == 0 ? PackedNeighborhood.NONE : expected[0], neighborhood.firstPacked(solution),
+                "first swap of " + name);
+
+        List<SwapNeighborhood.SwapMove> lazy = new ArrayList<>();
+        neighborhood.explore(solution).moves().forEach(lazy::add);
+        assertEquals(expected.length, lazy.size(), "lazy swaps of " + name);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(neighborhood.materialize(solution, expected[i]), lazy.get(i), "lazy swap " + i + " of " + name);
+        }
+
+        // A random start only rotates the order
+        var rotated = new PackedMoveList();
+        new SwapNeighborhood(true).explorePacked(solution, rotated);
+        long[] sorted = toArray(rotated);
+        Arrays.sort(sorted);
+        assertEquals(Arrays.toString(expected), Arrays.toString(sorted), "randomly started swaps of " + name);
+        return expected.length;
+    }
+
+    /**
+     * Swaps of a chosen, non empty set with an unchosen set that covers all its points, sorted by outgoing and
+     * then incoming set. With a core, only core sets may come in.
+     */
+    private static long[] allPairs(PSSCSolution solution) {
+        var instance = solution.getInstance();
+        var core = solution.getCore();
+        BitSet chosen = solution.getChosenSets();
+        List<Long> moves = new ArrayList<>();
+        for (int out = 0; out < instance.getnSets(); out++) {
+            if (!chosen.contains(out) || instance.setDegree(out) == 0) continue;
+            for (int in = 0; in < instance.getnSets(); in++) {
+                if (chosen.contains(in) || core != null && !core.contains(in)) continue;
+                var points = instance.getCoveredPoints(in);
+                boolean[] superset = {true};
+                instance.getCoveredPoints(out).forEach(p -> superset[0] &= points.contains(p));
+                if (superset[0]) moves.add(PackedNeighborhood.pack(out, in));
+            }
+        }
+        return moves.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long[] toArray(PackedMoveList list) {
+        long[] array = new long[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
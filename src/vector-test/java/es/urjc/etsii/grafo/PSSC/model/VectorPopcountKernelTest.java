@@ -0,0 +1,82 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import jdk.incubator.vector.LongVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorPopcountKernelTest {
+
+    private static final PopcountKernel SCALAR = Popcount.SCALAR;
+    private static final PopcountKernel VECTOR = new VectorPopcountKernel();
+
+    /**
+     * Words per vector, lengths around its multiples exercise the scalar tail loop
+     */
+    private static final int LANES = LongVector.SPECIES_PREFERRED.length();
+
+    @Test
+    void popcountLoadsTheVectorKernel() {
+        assertTrue(Popcount.kernel() instanceof VectorPopcountKernel, "kernel is " + Popcount.kernel().name());
+    }
+
+    @Test
+    void matchesTheScalarKernel() {
+        var random = new Random(24);
+        for (int words = 0; words <= 8 * LANES + 3; words++) {
+            for (int t = 0; t < 50; t++) {
+                // Ranges start at arbitrary offsets, so they are not aligned with the array or with each other
+                int aFrom = random.nextInt(2 * LANES + 1), bFrom = random.nextInt(2 * LANES + 1);
+                long[] a = randomWords(random, aFrom + words + random.nextInt(LANES + 1));
+                long[] b = randomWords(random, bFrom + words + random.nextInt(LANES + 1));
+                check(a, aFrom, b, bFrom, words);
+            }
+        }
+    }
+
+    @Test
+    void extremeWords() {
+        for (int words = 0; words <= 4 * LANES + 1; words++) {
+            long[] ones = new long[words + 1], zeros = new long[words + 1], alternate = new long[words + 1];
+            Arrays.fill(ones, -1L);
+            Arrays.fill(alternate, 0x5555555555555555L);
+            for (int from = 0; from <= 1; from++) {
+                check(ones, from, ones, 1 - from, words);
+                check(ones, from, zeros, from, words);
+                check(zeros, from, ones, 1 - from, words);
+                check(alternate, from, ones, from, words);
+                check(ones, from, alternate, 1 - from, words);
+            }
+            assertEquals(64 * words, VECTOR.andCount(ones, 0, ones, 1, words));
+            assertEquals(64 * words, VECTOR.andNotCount(ones, 1, zeros, 0, words));
+        }
+    }
+
+    private static void check(long[] a, int aFrom, long[] b, int bFrom, int words) {
+        String range = words + " words from " + aFrom + " and " + bFrom;
+        assertEquals(SCALAR.andCount(a, aFrom, b, bFrom, words), VECTOR.andCount(a, aFrom, b, bFrom, words),
+                "andCount of " + range);
+        assertEquals(SCALAR.andNotCount(a, aFrom, b, bFrom, words), VECTOR.andNotCount(a, aFrom, b, bFrom, words),
+                "andNotCount of " + range);
+    }
+
+    /**
+     * Random words of varying density, some of them empty or full
+     */
+    private static long[] randomWords(Random random, int length) {
+        long[] words = new long[length];
+        for (int w = 0; w < length; w++) {
+            words[w] = switch (random.nextInt(5)) {
+                case 0 -> 0;
+                case 1 -> -1L;
+                case 2 -> random.nextLong() & random.nextLong() & random.nextLong();
+                default -> random.nextLong();
+            };
+        }
+        return words;
+    }
+}
@@ -0,0 +1,68 @@
+package es.urjc.etsii.grafo.PSSC.model;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel based on the incubator Vector API, only compiled with the {@code vector} Maven profile and loaded by
+ * {@link Popcount} when the module is available. Lane-wise bit counts are not available in every JDK supported by
+ * the project, so each lane is counted with the classic SWAR reduction, and the remaining words with the scalar loop.
+ */
+public final class VectorPopcountKernel implements PopcountKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    public VectorPopcountKernel() {
+        // Fail here instead of on first use if the module is not resolved
+        LongVector.zero(SPECIES);
+    }
+
+    @Override
+    public int andCount(long[] a, int aFrom, long[] b, int bFrom, int words) {
+        int bound = SPECIES.loopBound(words);
+        var acc = LongVector.zero(SPECIES);
+        int w = 0;
+        for (; w < bound; w += SPECIES.length()) {
+            var x = LongVector.fromArray(SPECIES, a, aFrom + w).and(LongVector.fromArray(SPECIES, b, bFrom + w));
+            acc = acc.add(bitCount(x));
+        }
+        int count = (int) acc.reduceLanes(VectorOperators.ADD);
+        for (; w < words; w++) {
+            count += Long.bitCount(a[aFrom + w] & b[bFrom + w]);
+        }
+        return count;
+    }
+
+    @Override
+    public int andNotCount(long[] a, int aFrom, long[] b, int bFrom, int words) {
+        int bound = SPECIES.loopBound(words);
+        var acc = LongVector.zero(SPECIES);
+        int w = 0;
+        for (; w < bound; w += SPECIES.length()) {
+            var x = LongVector.fromArray(SPECIES, a, aFrom + w)
+                    .lanewise(VectorOperators.AND_NOT, LongVector.fromArray(SPECIES, b, bFrom + w));
+            acc = acc.add(bitCount(x));
+        }
+        int count = (int) acc.reduceLanes(VectorOperators.ADD);
+        for (; w < words; w++) {
+            count += Long.bitCount(a[aFrom + w] & ~b[bFrom + w]);
+        }
+        return count;
+    }
+
+    /**
+     * Number of bits set in each lane
+     */
+    private static LongVector bitCount(LongVector x) {
+        x = x.sub(x.lanewise(VectorOperators.LSHR, 1).and(0x5555555555555555L));
+        x = x.and(0x3333333333333333L).add(x.lanewise(VectorOperators.LSHR, 2).and(0x3333333333333333L));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 4)).and(0x0F0F0F0F0F0F0F0FL);
+        return x.mul(0x0101010101010101L).lanewise(VectorOperators.LSHR, 56);
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+}